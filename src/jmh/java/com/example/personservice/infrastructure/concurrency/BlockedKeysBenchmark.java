@@ -0,0 +1,97 @@
+package com.example.personservice.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to get through a batch of keys that each block (a retry wait, a slow call) before a short piece of
+ * work inside the database {@link Bulkhead}: on the platform pool sized like {@code person-batch-keys}
+ * against one virtual thread per key, as {@link ExecutorConfig} sets up. The virtual case needs Java 21;
+ * on older JVMs run it with {@code -p executor=platform}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BlockedKeysBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 10;
+    private static final int BULKHEAD_PERMITS = 4;
+
+    @Param({"1000", "5000"})
+    private int keys;
+
+    @Param({"20"})
+    private long blockMillis;
+
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    private Executor keyExecutor;
+    private Runnable shutdown;
+    private Bulkhead bulkhead;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (executor.equals("virtual")) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("Virtual threads need Java 21; run with -p executor=platform");
+            }
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("person-key-");
+            virtual.setVirtualThreads(true);
+            keyExecutor = virtual;
+            shutdown = virtual::close;
+        } else {
+            ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+            keyExecutor = platform;
+            shutdown = platform::shutdownNow;
+        }
+        bulkhead = new Bulkhead("database", BULKHEAD_PERMITS, Duration.ofSeconds(30), new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        shutdown.run();
+    }
+
+    @Benchmark
+    public void processBatch() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(keys);
+        for (int i = 0; i < keys; i++) {
+            keyExecutor.execute(() -> {
+                try {
+                    Thread.sleep(blockMillis);
+                    bulkhead.run(() -> Blackhole.consumeCPU(1_000));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
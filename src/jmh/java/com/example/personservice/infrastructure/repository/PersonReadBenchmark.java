@@ -0,0 +1,161 @@
+package com.example.personservice.infrastructure.repository;
+
+import com.example.personservice.application.dto.person.PersonResponseDto;
+import com.example.personservice.domain.model.Person;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import liquibase.integration.spring.SpringLiquibase;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Person reads through the JDBC projections of {@link PersonReadRepository} against the entity path they
+ * replaced (load managed {@link Person} entities in a read-only session, then copy them into DTOs). Needs
+ * Docker for the PostgreSQL container; run with {@code -prof gc} to compare allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonReadBenchmark {
+
+    @Param({"100", "5000"})
+    private int rows;
+
+    private PostgreSQLContainer postgres;
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private PersonReadRepository readRepository;
+    private UUID id;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = new PostgreSQLContainer("postgres:18.1");
+        postgres.start();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(2);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> persons = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            persons.add(new Object[]{UUID.randomUUID(), "First" + i, "Last" + i,
+                    Date.valueOf(LocalDate.of(1960, 1, 1).plusDays(i % 15_000)), "TAX" + i, BigDecimal.valueOf(i, 2)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO person (id, first_name, last_name, date_of_birth, tax_number, tax_debt, "
+                + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, now(), now(), 0)", persons);
+        id = (UUID) persons.get(rows / 2)[0];
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(Person.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        readRepository = new PersonReadRepository(jdbcTemplate, dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<PersonResponseDto> findAllProjection() {
+        return readRepository.findAll();
+    }
+
+    @Benchmark
+    public List<PersonResponseDto> findAllEntities() {
+        return inReadOnlySession(entityManager -> entityManager
+                .createQuery("SELECT p FROM Person p", Person.class)
+                .getResultList()
+                .stream()
+                .map(PersonReadBenchmark::mapToDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public PersonResponseDto findByIdProjection() {
+        return readRepository.findById(id).orElseThrow();
+    }
+
+    @Benchmark
+    public PersonResponseDto findByIdEntity() {
+        return inReadOnlySession(entityManager -> mapToDto(entityManager.find(Person.class, id)));
+    }
+
+    // what a @Transactional(readOnly = true) repository call does: read-only session, no flush
+    private <T> T inReadOnlySession(Function<EntityManager, T> work) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Session session = entityManager.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            entityManager.getTransaction().begin();
+            T result = work.apply(entityManager);
+            entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // the PersonService mapping the projections replaced
+    private static PersonResponseDto mapToDto(Person person) {
+        PersonResponseDto dto = new PersonResponseDto();
+
+        dto.setId(person.getId());
+        dto.setFirstName(person.getFirstName());
+        dto.setLastName(person.getLastName());
+        dto.setAge(person.getAge());
+        dto.setTaxDebt(person.getTaxDebt());
+        dto.setTaxNumber(person.getTaxNumber());
+        dto.setVersion(person.getVersion());
+
+        return dto;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.personservice.infrastructure.web;
+
+import com.example.personservice.application.dto.person.PersonCursorPageResponseDto;
+import com.example.personservice.application.dto.person.PersonResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost of the list and search responses as JSON and as Smile, raw and gzipped the way
+ * {@code server.compression} sends them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    /** {@code search}: one 20-person cursor page, {@code list}: all persons, 1000 of them. */
+    @Param({"search", "list"})
+    private String response;
+
+    @Param({"json", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private Object body;
+    private byte[] bytes;
+    private Class<?> bodyType;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // as configured for the application: dates as ISO strings in both formats
+        mapper = format.equals("smile")
+                ? SmileMapper.builder().disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS).build()
+                : JsonMapper.builder().disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+        if (response.equals("search")) {
+            PersonCursorPageResponseDto page = new PersonCursorPageResponseDto();
+            page.setContent(persons(20));
+            page.setSize(20);
+            page.setHasNext(true);
+            page.setNextCursor("eyJmaXJzdE5hbWUiOiJGaXJzdDE5IiwiaWQiOiIwMDAwIn0");
+            page.setEstimatedTotal(125_000L);
+            body = page;
+            bodyType = PersonCursorPageResponseDto.class;
+        } else {
+            body = persons(1000);
+            bodyType = PersonResponseDto[].class;
+        }
+
+        bytes = mapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return mapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            mapper.writeValue(gzip, body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return mapper.readValue(bytes, bodyType);
+    }
+
+    private static List<PersonResponseDto> persons(int count) {
+        List<PersonResponseDto> persons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PersonResponseDto dto = new PersonResponseDto();
+            dto.setId(UUID.randomUUID());
+            dto.setFirstName("First" + i);
+            dto.setLastName("Last" + i);
+            dto.setAge(20 + i % 60);
+            dto.setTaxNumber("TAX" + (1_000_000 + i));
+            dto.setTaxDebt(BigDecimal.valueOf(i * 137L % 100_000, 2));
+            dto.setVersion(i % 5);
+            persons.add(dto);
+        }
+        return persons;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.personservice.infrastructure.web;
+
+import com.example.personservice.application.dto.person.PersonResponseDto;
+import com.example.personservice.infrastructure.cache.PersonCache;
+import com.example.personservice.infrastructure.cache.PersonCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body of a hot single-person response: served from {@link ResponseBytesCache} with a matching ETag, against
+ * serializing the DTO on every request as the message converter did before. Requests cycle over
+ * {@code persons} distinct records, all of which fit in the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCacheBenchmark {
+
+    @Param({"1", "10000"})
+    private int persons;
+
+    @Param({"JSON", "SMILE"})
+    private String format;
+
+    private ResponseFormat responseFormat;
+    private JsonMapper jsonMapper;
+    private SmileMapper smileMapper;
+    private ResponseBytesCache cache;
+    private PersonResponseDto[] dtos;
+    private String[] lookupKeys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        responseFormat = ResponseFormat.valueOf(format);
+        jsonMapper = JsonMapper.builder().disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        smileMapper = SmileMapper.builder().disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        // the cache only registers its eviction listener; Redis is never reached
+        PersonCache personCache = new PersonCache(new PersonCacheProperties(), new StringRedisTemplate(),
+                new ObjectMapper(), new SimpleMeterRegistry());
+        cache = new ResponseBytesCache(jsonMapper, smileMapper, personCache, new SimpleMeterRegistry(), 33_554_432);
+
+        dtos = new PersonResponseDto[persons];
+        lookupKeys = new String[persons];
+        for (int i = 0; i < persons; i++) {
+            PersonResponseDto dto = new PersonResponseDto();
+            dto.setId(UUID.randomUUID());
+            dto.setFirstName("First" + i);
+            dto.setLastName("Last" + i);
+            dto.setAge(20 + i % 60);
+            dto.setTaxNumber("TAX" + (1_000_000 + i));
+            dto.setTaxDebt(BigDecimal.valueOf(i * 137L % 100_000, 2));
+            dto.setVersion(i % 5);
+            dtos[i] = dto;
+            lookupKeys[i] = "id:" + dto.getId();
+            cachedBytes();
+        }
+    }
+
+    @Benchmark
+    public byte[] cachedBytes() {
+        int i = next();
+        PersonResponseDto dto = dtos[i];
+        String eTag = ETags.person(dto.getVersion(), dto.getAge(), responseFormat);
+        return cache.bytes(ResponseBytesCache.PERSON, lookupKeys[i], responseFormat, eTag, dto);
+    }
+
+    @Benchmark
+    public byte[] serializeEveryRequest() {
+        PersonResponseDto dto = dtos[next()];
+        return responseFormat == ResponseFormat.SMILE ? smileMapper.writeValueAsBytes(dto) : jsonMapper.writeValueAsBytes(dto);
+    }
+
+    private int next() {
+        int i = next;
+        next = i + 1 == persons ? 0 : i + 1;
+        return i;
+    }
+}
@@ -4,8 +4,10 @@ import com.example.personservice.infrastructure.messaging.kafka.config.KafkaRetr
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PersonServiceApplication {
 
     public static void main(String[] args) {
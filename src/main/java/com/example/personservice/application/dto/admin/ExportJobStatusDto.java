@@ -0,0 +1,27 @@
+package com.example.personservice.application.dto.admin;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExportJobStatusDto {
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    private UUID jobId;
+    private State state;
+    private int partitions;
+    private int partitionsCompleted;
+    private long rowsExported;
+    private long bytesWritten;
+    private String outputDirectory;
+    private String manifestPath;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
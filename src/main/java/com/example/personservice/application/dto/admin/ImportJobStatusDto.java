@@ -0,0 +1,29 @@
+package com.example.personservice.application.dto.admin;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobStatusDto {
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    private UUID jobId;
+    private String filePath;
+    private State state;
+    private long fileSize;
+    private long byteOffset;
+    private long rowsRead;
+    private long rowsLoaded;
+    private long rowsRejected;
+    private long rowsSkipped;
+    private double rowsPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,40 @@
+package com.example.personservice.application.dto.bulk;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkIngestResponseDto {
+    private long totalLines;
+    private long accepted;
+    private long rejected;
+    private long failed;
+    // Only lines that were not accepted are listed, at most maxReportedErrors of them; the counts cover all lines
+    private List<BulkLineResultDto> errors = new ArrayList<>();
+    private boolean truncated;
+
+    @JsonIgnore
+    private final int maxReportedErrors;
+
+    public BulkIngestResponseDto(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void addError(BulkLineResultDto error) {
+        if (errors.size() < maxReportedErrors) {
+            errors.add(error);
+        } else {
+            truncated = true;
+        }
+        if (error.getStatus() == BulkLineResultDto.Status.REJECTED) {
+            rejected++;
+        } else {
+            failed++;
+        }
+    }
+}
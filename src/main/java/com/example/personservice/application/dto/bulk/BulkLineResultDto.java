@@ -0,0 +1,22 @@
+package com.example.personservice.application.dto.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BulkLineResultDto {
+    public enum Status { REJECTED, FAILED }
+
+    private long line;
+    private Status status;
+    private String key;
+    private String message;
+
+    public BulkLineResultDto(long line, Status status, String key, String message) {
+        this.line = line;
+        this.status = status;
+        this.key = key;
+        this.message = message;
+    }
+}
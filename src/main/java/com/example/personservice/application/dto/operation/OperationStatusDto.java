@@ -0,0 +1,27 @@
+package com.example.personservice.application.dto.operation;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+public class OperationStatusDto {
+
+    public enum Status {
+        PENDING, RETRYING, APPLIED, FAILED;
+
+        public boolean isTerminal() {
+            return this == APPLIED || this == FAILED;
+        }
+    }
+
+    private UUID eventId;
+    private Status status;
+
+    public OperationStatusDto(UUID eventId, Status status) {
+        this.eventId = eventId;
+        this.status = status;
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.personservice.application.dto.person;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.UUID;
+
 @Getter
 @Setter
+@NoArgsConstructor
 public class OperationResponseDto {
     private String message;
     private String operationType;
+    // poll GET /operations/{eventId} to find out when the change is applied
+    private UUID eventId;
 
-    public OperationResponseDto(String message, String operationType) {
+    public OperationResponseDto(String message, String operationType, UUID eventId) {
         this.message = message;
         this.operationType = operationType;
+        this.eventId = eventId;
     }
 }
@@ -0,0 +1,18 @@
+package com.example.personservice.application.dto.person;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PersonCursorPageResponseDto {
+    private List<PersonResponseDto> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long estimatedTotal;
+}
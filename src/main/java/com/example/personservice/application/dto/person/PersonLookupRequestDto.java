@@ -0,0 +1,26 @@
+package com.example.personservice.application.dto.person;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class PersonLookupRequestDto {
+    public static final int MAX_KEYS = 500;
+
+    // An explicit null is read as an empty list, like an absent field
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    @Size(max = MAX_KEYS, message = "At most 500 ids can be looked up at once")
+    private List<UUID> ids = new ArrayList<>();
+
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    @Size(max = MAX_KEYS, message = "At most 500 tax numbers can be looked up at once")
+    private List<String> taxNumbers = new ArrayList<>();
+}
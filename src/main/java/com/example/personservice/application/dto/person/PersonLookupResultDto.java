@@ -0,0 +1,20 @@
+package com.example.personservice.application.dto.person;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PersonLookupResultDto {
+    private String key;
+    private boolean found;
+    private PersonResponseDto person;
+
+    public PersonLookupResultDto(String key, PersonResponseDto person) {
+        this.key = key;
+        this.found = person != null;
+        this.person = person;
+    }
+}
@@ -16,4 +16,5 @@ public class PersonResponseDto {
     private int age;
     private String taxNumber;
     private BigDecimal taxDebt;
+    private long version;
 }
\ No newline at end of file
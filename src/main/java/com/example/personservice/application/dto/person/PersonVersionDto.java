@@ -0,0 +1,14 @@
+package com.example.personservice.application.dto.person;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The parts of a person that determine its ETag, without loading the whole row.
+ */
+@Getter
+@Setter
+public class PersonVersionDto {
+    private long version;
+    private int age;
+}
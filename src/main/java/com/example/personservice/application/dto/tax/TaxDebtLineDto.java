@@ -0,0 +1,20 @@
+package com.example.personservice.application.dto.tax;
+
+import com.example.personservice.infrastructure.validation.validator.ValidTaxAmount;
+import com.example.personservice.infrastructure.validation.validator.ValidTaxNumber;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class TaxDebtLineDto {
+    @NotBlank(message = "Tax number is required")
+    @ValidTaxNumber
+    private String taxNumber;
+
+    @ValidTaxAmount
+    private BigDecimal amount;
+}
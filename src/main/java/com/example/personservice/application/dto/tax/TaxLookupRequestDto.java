@@ -0,0 +1,16 @@
+package com.example.personservice.application.dto.tax;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TaxLookupRequestDto {
+    @NotEmpty(message = "At least one tax number is required")
+    @Size(max = 500, message = "At most 500 tax numbers can be looked up at once")
+    private List<String> taxNumbers;
+}
@@ -0,0 +1,22 @@
+package com.example.personservice.application.dto.tax;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaxLookupResultDto {
+    private String taxNumber;
+    private boolean found;
+    private BigDecimal amount;
+
+    public TaxLookupResultDto(String taxNumber, boolean found, BigDecimal amount) {
+        this.taxNumber = taxNumber;
+        this.found = found;
+        this.amount = amount;
+    }
+}
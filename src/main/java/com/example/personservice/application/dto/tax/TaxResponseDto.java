@@ -1,5 +1,6 @@
 package com.example.personservice.application.dto.tax;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,4 +11,8 @@ import java.math.BigDecimal;
 @Setter
 public class TaxResponseDto {
     private BigDecimal amount;
+
+    // version of the person row, only used for the ETag
+    @JsonIgnore
+    private long version;
 }
\ No newline at end of file
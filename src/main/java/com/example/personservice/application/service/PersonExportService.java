@@ -0,0 +1,228 @@
+package com.example.personservice.application.service;
+
+import com.example.personservice.application.dto.admin.ExportJobStatusDto;
+import com.example.personservice.infrastructure.concurrency.ExecutorNames;
+import com.example.personservice.infrastructure.concurrency.ExecutorRegistry;
+import com.example.personservice.infrastructure.exception.AdminJobException;
+import com.example.personservice.infrastructure.exception.AdminJobNotFoundException;
+import com.example.personservice.infrastructure.repository.PersonExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports the person table as a set of CSV part files plus a JSON manifest.
+ * The UUID keyspace is split into equal ranges that are scanned in parallel, each on its own connection,
+ * all reading from the same exported snapshot.
+ * <p>
+ * The snapshot and every range hold a pooled connection for the whole export, so the number of ranges is
+ * capped to keep the export within {@code person-export.max-pool-share} of the JDBC pool; the rest stays
+ * free for requests and consumers.
+ */
+@Slf4j
+@Service
+public class PersonExportService {
+
+    private static final int MAX_PARTITIONS = 8;
+
+    private final PersonExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final Path outputDir;
+    private final int maxPartitions;
+
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public PersonExportService(
+            PersonExportRepository exportRepository,
+            ObjectMapper objectMapper,
+            ExecutorRegistry executorRegistry,
+            @Value("${person-export.output-dir:/data/export}") String outputDir,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${person-export.max-pool-share:0.5}") double maxPoolShare
+    ) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.outputDir = Path.of(outputDir).toAbsolutePath().normalize();
+        this.coordinator = executorRegistry.executor(ExecutorNames.PERSON_EXPORT);
+        this.workers = executorRegistry.executor(ExecutorNames.PERSON_EXPORT_PARTS);
+        // one connection goes to the snapshot, the rest to ranges
+        this.maxPartitions = Math.max(1, Math.min(MAX_PARTITIONS, (int) (poolSize * maxPoolShare) - 1));
+    }
+
+    public ExportJobStatusDto startExport(int partitions) {
+        if (partitions < 1 || partitions > maxPartitions) {
+            throw new AdminJobException("Partitions must be between 1 and " + maxPartitions);
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID(), partitions, outputDir.resolve("person-" + System.currentTimeMillis()));
+        try {
+            coordinator.submit(() -> runExport(job));
+        } catch (RejectedExecutionException ex) {
+            throw new AdminJobException("Too many export jobs queued; try again later");
+        }
+        jobs.put(job.jobId, job);
+
+        log.info("[Export] Started job {} with {} partitions into {}", job.jobId, partitions, job.directory);
+        return job.toDto();
+    }
+
+    public ExportJobStatusDto getStatus(UUID jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw AdminJobNotFoundException.byId(jobId);
+        }
+        return job.toDto();
+    }
+
+    private void runExport(ExportJob job) {
+        try {
+            Files.createDirectories(job.directory);
+            List<UUID> bounds = splitKeyspace(job.partitions);
+
+            try (PersonExportRepository.Snapshot snapshot = exportRepository.openSnapshot()) {
+                List<CompletableFuture<Map<String, Object>>> parts = new ArrayList<>();
+                for (int i = 0; i < job.partitions; i++) {
+                    UUID lower = bounds.get(i);
+                    UUID upper = bounds.get(i + 1);
+                    String fileName = String.format("part-%05d.csv", i);
+                    parts.add(CompletableFuture.supplyAsync(
+                            () -> exportPart(job, snapshot.getSnapshotId(), fileName, lower, upper), workers));
+                }
+
+                List<Map<String, Object>> manifestParts = new ArrayList<>();
+                for (CompletableFuture<Map<String, Object>> part : parts) {
+                    manifestParts.add(part.join());
+                }
+                writeManifest(job, manifestParts);
+            }
+
+            job.finish(ExportJobStatusDto.State.COMPLETED, null);
+            log.info("[Export] Job {} completed: {} rows, {} bytes", job.jobId, job.rowsExported.get(), job.bytesWritten.get());
+
+        } catch (Exception ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            log.error("[Export] Job {} failed: {}", job.jobId, cause.getMessage(), cause);
+            job.finish(ExportJobStatusDto.State.FAILED, cause.getMessage());
+        }
+    }
+
+    private Map<String, Object> exportPart(ExportJob job, String snapshotId, String fileName, UUID lower, UUID upper) {
+        Path file = job.directory.resolve(fileName);
+        AtomicLong partBytes = new AtomicLong();
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long rows = exportRepository.copyRange(snapshotId, lower, upper, channel, bytes -> {
+                partBytes.addAndGet(bytes);
+                job.bytesWritten.addAndGet(bytes);
+            });
+            channel.force(false);
+
+            job.rowsExported.addAndGet(rows);
+            job.partitionsCompleted.incrementAndGet();
+            log.debug("[Export] Job {} wrote {} rows to {}", job.jobId, rows, fileName);
+
+            Map<String, Object> part = new LinkedHashMap<>();
+            part.put("file", fileName);
+            part.put("lowerBound", lower);
+            part.put("upperBound", upper);
+            part.put("rows", rows);
+            part.put("bytes", partBytes.get());
+            return part;
+        } catch (Exception ex) {
+            throw new AdminJobException("Failed to export " + fileName, ex);
+        }
+    }
+
+    private void writeManifest(ExportJob job, List<Map<String, Object>> parts) throws Exception {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("jobId", job.jobId);
+        manifest.put("createdAt", job.startedAt.toString());
+        manifest.put("format", "csv");
+        manifest.put("columns", PersonExportRepository.COLUMNS.split(", "));
+        manifest.put("totalRows", job.rowsExported.get());
+        manifest.put("parts", parts);
+
+        Path manifestFile = job.directory.resolve("manifest.json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(manifestFile.toFile(), manifest);
+        job.manifestPath = manifestFile.toString();
+    }
+
+    /**
+     * Splits the UUID space into equal ranges on the most significant 64 bits.
+     * PostgreSQL orders uuid values bytewise, which matches unsigned ordering of those bits.
+     * The first lower bound and the last upper bound are null (open).
+     */
+    private static List<UUID> splitKeyspace(int partitions) {
+        List<UUID> bounds = new ArrayList<>(partitions + 1);
+        bounds.add(null);
+        long step = Long.divideUnsigned(-1L, partitions);
+        for (int i = 1; i < partitions; i++) {
+            bounds.add(new UUID(step * i, 0L));
+        }
+        bounds.add(null);
+        return bounds;
+    }
+
+    private static class ExportJob {
+        private final UUID jobId;
+        private final int partitions;
+        private final Path directory;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger partitionsCompleted = new AtomicInteger();
+        private final AtomicLong rowsExported = new AtomicLong();
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private volatile ExportJobStatusDto.State state = ExportJobStatusDto.State.RUNNING;
+        private volatile String manifestPath;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        ExportJob(UUID jobId, int partitions, Path directory) {
+            this.jobId = jobId;
+            this.partitions = partitions;
+            this.directory = directory;
+        }
+
+        void finish(ExportJobStatusDto.State state, String error) {
+            this.finishedAt = Instant.now();
+            this.error = error;
+            this.state = state;
+        }
+
+        ExportJobStatusDto toDto() {
+            ExportJobStatusDto dto = new ExportJobStatusDto();
+            dto.setJobId(jobId);
+            dto.setState(state);
+            dto.setPartitions(partitions);
+            dto.setPartitionsCompleted(partitionsCompleted.get());
+            dto.setRowsExported(rowsExported.get());
+            dto.setBytesWritten(bytesWritten.get());
+            dto.setOutputDirectory(directory.toString());
+            dto.setManifestPath(manifestPath);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setError(error);
+            return dto;
+        }
+    }
+}
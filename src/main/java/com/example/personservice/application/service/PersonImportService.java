@@ -0,0 +1,381 @@
+package com.example.personservice.application.service;
+
+import com.example.personservice.application.dto.admin.ImportJobStatusDto;
+import com.example.personservice.application.dto.person.CreatePersonRequestDto;
+import com.example.personservice.infrastructure.cache.TaxNumberIndex;
+import com.example.personservice.infrastructure.concurrency.ExecutorNames;
+import com.example.personservice.infrastructure.concurrency.ExecutorRegistry;
+import com.example.personservice.infrastructure.exception.AdminJobException;
+import com.example.personservice.infrastructure.exception.AdminJobNotFoundException;
+import com.example.personservice.infrastructure.repository.PersonCopyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admin-triggered initial load of persons from a CSV or NDJSON file on the server.
+ * The file is read through memory-mapped windows, rows are validated with the same rules as
+ * {@link CreatePersonRequestDto} and loaded in chunks with COPY. Progress is checkpointed per file,
+ * so restarting an import for the same file resumes after the last committed chunk.
+ * <p>
+ * COPY bypasses the consumers that keep the {@link TaxNumberIndex} current, so the tax numbers of every
+ * committed chunk are added to it here, and a finished import rebuilds it on every node.
+ */
+@Slf4j
+@Service
+public class PersonImportService {
+
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final int CHUNK_ROWS = 5000;
+
+    private final PersonCopyRepository copyRepository;
+    private final TaxNumberIndex taxNumberIndex;
+    private final Validator validator;
+    private final ObjectReader ndjsonReader;
+    private final Path baseDir;
+
+    private final ExecutorService executor;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public PersonImportService(
+            PersonCopyRepository copyRepository,
+            TaxNumberIndex taxNumberIndex,
+            Validator validator,
+            ObjectMapper objectMapper,
+            ExecutorRegistry executorRegistry,
+            @Value("${person-import.base-dir:/data/import}") String baseDir
+    ) {
+        this.copyRepository = copyRepository;
+        this.taxNumberIndex = taxNumberIndex;
+        this.validator = validator;
+        this.ndjsonReader = objectMapper.readerFor(CreatePersonRequestDto.class);
+        this.baseDir = Path.of(baseDir).toAbsolutePath().normalize();
+        this.executor = executorRegistry.executor(ExecutorNames.PERSON_IMPORT);
+    }
+
+    public ImportJobStatusDto startImport(String fileName, boolean restart) {
+        Path file = baseDir.resolve(fileName).normalize();
+        if (!file.startsWith(baseDir)) {
+            throw new AdminJobException("Import file must be inside " + baseDir);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new AdminJobException("Import file not found: " + fileName);
+        }
+
+        String filePath = file.toString();
+        boolean running = jobs.values().stream()
+                .anyMatch(job -> job.filePath.equals(filePath) && job.state == ImportJobStatusDto.State.RUNNING);
+        if (running) {
+            throw new AdminJobException("An import is already running for " + fileName);
+        }
+
+        if (restart) {
+            copyRepository.deleteCheckpoint(filePath);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID(), filePath);
+        try {
+            executor.submit(() -> runImport(job, file));
+        } catch (RejectedExecutionException ex) {
+            throw new AdminJobException("Too many import jobs queued; try again later");
+        }
+        jobs.put(job.jobId, job);
+
+        log.info("[Import] Started job {} for {}", job.jobId, filePath);
+        return job.toDto();
+    }
+
+    public ImportJobStatusDto getStatus(UUID jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw AdminJobNotFoundException.byId(jobId);
+        }
+        return job.toDto();
+    }
+
+    private void runImport(ImportJob job, Path file) {
+        boolean ndjson = isNdjson(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            job.fileSize = size;
+
+            PersonCopyRepository.Checkpoint checkpoint = copyRepository.findCheckpoint(job.filePath).orElse(null);
+            if (checkpoint != null && checkpoint.isCompleted()) {
+                log.info("[Import] {} was already fully imported; nothing to do", job.filePath);
+                job.byteOffset.set(checkpoint.getByteOffset());
+                job.rowsLoaded.set(checkpoint.getRowsLoaded());
+                job.rowsRejected.set(checkpoint.getRowsRejected());
+                job.finish(ImportJobStatusDto.State.COMPLETED, null);
+                return;
+            }
+            if (checkpoint != null) {
+                log.info("[Import] Resuming {} from byte {} ({} rows already loaded)",
+                        job.filePath, checkpoint.getByteOffset(), checkpoint.getRowsLoaded());
+                job.byteOffset.set(checkpoint.getByteOffset());
+                job.rowsRejected.set(checkpoint.getRowsRejected());
+                job.resumedRowsLoaded = checkpoint.getRowsLoaded();
+            }
+
+            ChunkBuffer chunk = new ChunkBuffer();
+            long position = job.byteOffset.get();
+            boolean firstLine = position == 0;
+
+            while (position < size) {
+                long length = Math.min(MAP_WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastWindow = position + length == size;
+
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (window.get(i) == '\n') {
+                        handleLine(job, chunk, decode(window, lineStart, i), ndjson, firstLine, position + i + 1);
+                        firstLine = false;
+                        lineStart = i + 1;
+                    }
+                }
+                if (lastWindow && lineStart < length) {
+                    handleLine(job, chunk, decode(window, lineStart, (int) length), ndjson, firstLine, size);
+                    lineStart = (int) length;
+                }
+                if (lineStart == 0) {
+                    throw new AdminJobException("Line longer than " + MAP_WINDOW_BYTES + " bytes at offset " + position);
+                }
+                // the unfinished line at the end of the window is re-read from the next mapping
+                position += lineStart;
+            }
+
+            flush(job, chunk, size, true);
+            taxNumberIndex.requestRebuild();
+            job.finish(ImportJobStatusDto.State.COMPLETED, null);
+            log.info("[Import] Job {} completed: loaded={}, skipped={}, rejected={}, {} rows/s",
+                    job.jobId, job.rowsLoaded.get(), job.rowsSkipped.get(), job.rowsRejected.get(),
+                    String.format("%.0f", job.rowsPerSecond()));
+
+        } catch (Exception ex) {
+            log.error("[Import] Job {} failed at byte {}: {}", job.jobId, job.byteOffset.get(), ex.getMessage(), ex);
+            job.finish(ImportJobStatusDto.State.FAILED, ex.getMessage());
+        }
+    }
+
+    private void handleLine(ImportJob job, ChunkBuffer chunk, String line, boolean ndjson, boolean firstLine, long endOffset) {
+        if (line.isBlank() || (firstLine && !ndjson && isCsvHeader(line))) {
+            return;
+        }
+
+        job.rowsRead.incrementAndGet();
+        CreatePersonRequestDto row = ndjson ? parseNdjson(line) : parseCsv(line);
+        if (row == null || !validator.validate(row).isEmpty()) {
+            job.rowsRejected.incrementAndGet();
+            return;
+        }
+
+        chunk.append(row);
+        if (chunk.rows == CHUNK_ROWS) {
+            flush(job, chunk, endOffset, false);
+        }
+    }
+
+    private void flush(ImportJob job, ChunkBuffer chunk, long nextOffset, boolean completed) {
+        int staged = chunk.rows;
+        int inserted = copyRepository.copyAndMerge(
+                chunk.csv.toByteArray(), job.filePath, nextOffset, job.rowsRejected.get(), completed);
+
+        // committed; rows that already existed are in the index anyway
+        taxNumberIndex.addAll(chunk.taxNumbers);
+        job.rowsLoaded.addAndGet(inserted);
+        job.rowsSkipped.addAndGet(staged - inserted);
+        job.byteOffset.set(nextOffset);
+        chunk.reset();
+    }
+
+    private CreatePersonRequestDto parseNdjson(String line) {
+        try {
+            return ndjsonReader.readValue(line);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    static CreatePersonRequestDto parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null || fields.size() != 4) {
+            return null;
+        }
+        try {
+            CreatePersonRequestDto row = new CreatePersonRequestDto();
+            row.setFirstName(fields.get(0));
+            row.setLastName(fields.get(1));
+            row.setDateOfBirth(LocalDate.parse(fields.get(2)));
+            row.setTaxNumber(fields.get(3));
+            return row;
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Splits a CSV line into its values, the reverse of {@link ChunkBuffer}'s quoting: a quoted value may
+     * contain commas and {@code ""} for a quote. Unquoted values are trimmed. Returns null for an unterminated
+     * quote or text after a closing quote.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    inQuotes = false;
+                }
+            } else if (c == ',') {
+                fields.add(quoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '"' && !quoted && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+                inQuotes = true;
+            } else if (quoted) {
+                if (!Character.isWhitespace(c)) {
+                    return null;
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        if (inQuotes) {
+            return null;
+        }
+        fields.add(quoted ? field.toString() : field.toString().trim());
+        return fields;
+    }
+
+    private static boolean isCsvHeader(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null) {
+            return false;
+        }
+        String first = fields.get(0);
+        return first.equalsIgnoreCase("firstName") || first.equalsIgnoreCase("first_name");
+    }
+
+    private static boolean isNdjson(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json");
+    }
+
+    private static String decode(MappedByteBuffer window, int from, int to) {
+        int end = to > from && window.get(to - 1) == '\r' ? to - 1 : to;
+        byte[] bytes = new byte[end - from];
+        window.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class ChunkBuffer {
+        private final ByteArrayOutputStream csv = new ByteArrayOutputStream(CHUNK_ROWS * 64);
+        private final List<String> taxNumbers = new ArrayList<>(CHUNK_ROWS);
+        private int rows;
+
+        void append(CreatePersonRequestDto row) {
+            String taxNumber = row.getTaxNumber().trim();
+            String line = csvField(row.getFirstName()) + ',' + csvField(row.getLastName()) + ','
+                    + row.getDateOfBirth() + ',' + csvField(taxNumber) + '\n';
+            csv.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+            taxNumbers.add(taxNumber);
+            rows++;
+        }
+
+        void reset() {
+            csv.reset();
+            taxNumbers.clear();
+            rows = 0;
+        }
+
+        private static String csvField(String value) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static class ImportJob {
+        private final UUID jobId;
+        private final String filePath;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong byteOffset = new AtomicLong();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsLoaded = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final AtomicLong rowsSkipped = new AtomicLong();
+        private volatile long fileSize;
+        private volatile long resumedRowsLoaded;
+        private volatile ImportJobStatusDto.State state = ImportJobStatusDto.State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        ImportJob(UUID jobId, String filePath) {
+            this.jobId = jobId;
+            this.filePath = filePath;
+        }
+
+        void finish(ImportJobStatusDto.State state, String error) {
+            this.finishedAt = Instant.now();
+            this.error = error;
+            this.state = state;
+        }
+
+        double rowsPerSecond() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            return rowsLoaded.get() * 1000.0 / millis;
+        }
+
+        ImportJobStatusDto toDto() {
+            ImportJobStatusDto dto = new ImportJobStatusDto();
+            dto.setJobId(jobId);
+            dto.setFilePath(filePath);
+            dto.setState(state);
+            dto.setFileSize(fileSize);
+            dto.setByteOffset(byteOffset.get());
+            dto.setRowsRead(rowsRead.get());
+            dto.setRowsLoaded(resumedRowsLoaded + rowsLoaded.get());
+            dto.setRowsRejected(rowsRejected.get());
+            dto.setRowsSkipped(rowsSkipped.get());
+            dto.setRowsPerSecond(Math.round(rowsPerSecond() * 10) / 10.0);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setError(error);
+            return dto;
+        }
+    }
+}
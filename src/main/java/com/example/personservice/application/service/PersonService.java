@@ -1,43 +1,122 @@
 package com.example.personservice.application.service;
 
+import com.example.personservice.application.dto.bulk.BulkIngestResponseDto;
+import com.example.personservice.application.dto.bulk.BulkLineResultDto;
 import com.example.personservice.application.dto.person.OperationResponseDto;
+import com.example.personservice.application.dto.person.PersonCursorPageResponseDto;
+import com.example.personservice.application.dto.person.PersonLookupRequestDto;
+import com.example.personservice.application.dto.person.PersonLookupResultDto;
+import com.example.personservice.application.dto.person.PersonVersionDto;
 import com.example.personservice.domain.model.Person;
 import com.example.personservice.domain.specification.PersonSpecification;
+import com.example.personservice.infrastructure.cache.PersonCache;
+import com.example.personservice.infrastructure.cache.TaxNumberIndex;
+import com.example.personservice.infrastructure.concurrency.SingleFlight;
+import com.example.personservice.infrastructure.concurrency.SingleFlightFactory;
+import com.example.personservice.infrastructure.exception.InvalidCursorException;
 import com.example.personservice.infrastructure.exception.KafkaConsumerException;
 import com.example.personservice.infrastructure.exception.PersonAlreadyExistsException;
 import com.example.personservice.infrastructure.exception.PersonNotFoundException;
 import com.example.personservice.infrastructure.exception.PersonServiceException;
+import com.example.personservice.infrastructure.repository.PersonPatchRepository;
+import com.example.personservice.infrastructure.repository.PersonReadRepository;
 import com.example.personservice.infrastructure.repository.PersonRepository;
+import com.example.personservice.infrastructure.repository.ProcessedEventRepository;
 import com.example.personservice.application.dto.person.CreatePersonRequestDto;
 import com.example.personservice.application.dto.person.PersonResponseDto;
 import com.example.personservice.application.dto.person.UpdatePersonRequestDto;
+import com.example.personservice.application.service.bulk.NdjsonBulkReader;
+import com.example.personservice.infrastructure.messaging.events.PersonDelta;
 import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import com.example.personservice.infrastructure.messaging.kafka.config.KafkaPersonProperties;
 import com.example.personservice.infrastructure.messaging.kafka.producers.PersonEventProducer;
-import lombok.RequiredArgsConstructor;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PersonService {
     private final PersonRepository repository;
     private final PersonEventProducer producer;
+    private final PersonReadRepository readRepository;
+    private final NdjsonBulkReader bulkReader;
+    private final PersonCache personCache;
+    private final OperationTracker operationTracker;
+    private final TaxNumberIndex taxNumberIndex;
+    private final ProcessedEventRepository processedEvents;
+    private final PersonPatchRepository patchRepository;
+    private final KafkaPersonProperties kafkaPersonProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<UUID, Optional<PersonResponseDto>> idLookups;
+    private final SingleFlight<String, Optional<PersonResponseDto>> taxNumberLookups;
+
+    private static final Sort CURSOR_SORT = Sort.by("firstName", "id");
+    private static final char CURSOR_SEPARATOR = '\u001F';
+    private static final String SIMULATED_FAILURE_NAME = "retry";
+
+    public PersonService(
+            PersonRepository repository,
+            PersonEventProducer producer,
+            PersonReadRepository readRepository,
+            NdjsonBulkReader bulkReader,
+            PersonCache personCache,
+            OperationTracker operationTracker,
+            TaxNumberIndex taxNumberIndex,
+            ProcessedEventRepository processedEvents,
+            TransactionTemplate transactionTemplate,
+            PersonPatchRepository patchRepository,
+            KafkaPersonProperties kafkaPersonProperties,
+            SingleFlightFactory singleFlightFactory
+    ) {
+        this.repository = repository;
+        this.producer = producer;
+        this.readRepository = readRepository;
+        this.bulkReader = bulkReader;
+        this.personCache = personCache;
+        this.operationTracker = operationTracker;
+        this.taxNumberIndex = taxNumberIndex;
+        this.processedEvents = processedEvents;
+        this.transactionTemplate = transactionTemplate;
+        this.patchRepository = patchRepository;
+        this.kafkaPersonProperties = kafkaPersonProperties;
+        this.idLookups = singleFlightFactory.create("person.by-id");
+        this.taxNumberLookups = singleFlightFactory.create("person.by-tax-number");
+    }
 
     public OperationResponseDto createPerson(CreatePersonRequestDto request) {
         log.info("Creating person with tax number: {}", request.getTaxNumber());
 
         try {
-            if (repository.existsByTaxNumber(request.getTaxNumber())) {
+            if (existsByTaxNumber(request.getTaxNumber())) {
                 log.warn("Person with tax number: {} already exists", request.getTaxNumber());
                 throw PersonAlreadyExistsException.withTaxNumber(request.getTaxNumber());
             }
@@ -49,11 +128,13 @@ public class PersonService {
             person.setTaxNumber(request.getTaxNumber());
 
             PersonEvent event = new PersonEvent(PersonEvent.EventType.CREATE, person);
+            operationTracker.register(event.getEventId());
             producer.publishEvent(event);
 
             return new OperationResponseDto(
                     "Person creation request successfully sent to Kafka for processing",
-                    "CREATE"
+                    "CREATE",
+                    event.getEventId()
             );
 
         } catch (Exception e) {
@@ -62,6 +143,62 @@ public class PersonService {
         }
     }
 
+    /**
+     * Creates persons from an NDJSON stream of {@link CreatePersonRequestDto} lines.
+     * Each chunk costs one existence query and one burst of producer sends instead of one of each per line.
+     */
+    public BulkIngestResponseDto bulkCreatePersons(InputStream body) {
+        log.info("Starting bulk person creation");
+        BulkIngestResponseDto summary = bulkReader.newSummary();
+
+        try {
+            bulkReader.read(body, CreatePersonRequestDto.class, summary,
+                    chunk -> publishCreateChunk(chunk, summary));
+        } catch (IOException ex) {
+            log.error("Error reading bulk person body after {} lines", summary.getTotalLines(), ex);
+            throw new PersonServiceException("Failed to read bulk person request", ex);
+        }
+
+        log.info("Bulk person creation finished: total={}, accepted={}, rejected={}, failed={}",
+                summary.getTotalLines(), summary.getAccepted(), summary.getRejected(), summary.getFailed());
+        return summary;
+    }
+
+    private void publishCreateChunk(
+            List<NdjsonBulkReader.ParsedLine<CreatePersonRequestDto>> chunk,
+            BulkIngestResponseDto summary
+    ) {
+        Set<String> taxNumbers = new HashSet<>();
+        chunk.forEach(line -> taxNumbers.add(line.getValue().getTaxNumber()));
+        taxNumbers.removeIf(taxNumber -> !taxNumberIndex.mightContain(taxNumber));
+        Set<String> existing = taxNumbers.isEmpty() ? Set.of() : repository.findExistingTaxNumbers(taxNumbers);
+
+        Set<String> seen = new HashSet<>();
+        List<NdjsonBulkReader.ParsedLine<CreatePersonRequestDto>> toPublish = new ArrayList<>(chunk.size());
+        List<PersonEvent> events = new ArrayList<>(chunk.size());
+        for (NdjsonBulkReader.ParsedLine<CreatePersonRequestDto> line : chunk) {
+            CreatePersonRequestDto request = line.getValue();
+            String taxNumber = request.getTaxNumber();
+            if (existing.contains(taxNumber) || !seen.add(taxNumber)) {
+                summary.addError(new BulkLineResultDto(line.getLineNumber(), BulkLineResultDto.Status.REJECTED,
+                        taxNumber, "Person already exists with tax number: " + taxNumber));
+                continue;
+            }
+
+            Person person = new Person();
+            person.setFirstName(request.getFirstName());
+            person.setLastName(request.getLastName());
+            person.setDateOfBirth(request.getDateOfBirth());
+            person.setTaxNumber(taxNumber);
+
+            toPublish.add(line);
+            events.add(new PersonEvent(PersonEvent.EventType.CREATE, person));
+        }
+
+        bulkReader.awaitPublished(toPublish, producer.publishEvents(events),
+                CreatePersonRequestDto::getTaxNumber, summary);
+    }
+
     public OperationResponseDto updatePerson(UUID id, UpdatePersonRequestDto request) {
         log.info("Updating person with ID: {}", id);
 
@@ -74,19 +211,25 @@ public class PersonService {
 
             log.info("Found person for update: ID={}, taxNumber={}", person.getId(), person.getTaxNumber());
 
-            person.updatePersonInfo(
-                    request.getFirstName(),
-                    request.getLastName(),
-                    request.getDateOfBirth()
-            );
-
-            PersonEvent event = new PersonEvent(PersonEvent.EventType.UPDATE, person);
+            PersonEvent event;
+            if (kafkaPersonProperties.isDeltaEvents()) {
+                event = new PersonEvent(deltaOf(person, request), person.getVersion());
+            } else {
+                person.updatePersonInfo(
+                        request.getFirstName(),
+                        request.getLastName(),
+                        request.getDateOfBirth()
+                );
+                event = new PersonEvent(PersonEvent.EventType.UPDATE, person);
+            }
+            operationTracker.register(event.getEventId());
             producer.publishEvent(event);
 
             log.info("Person update event published successfully for ID: {}", id);
             return new OperationResponseDto(
                     "Person update request successfully sent to Kafka for processing",
-                    "UPDATE"
+                    "UPDATE",
+                    event.getEventId()
             );
 
         } catch (Exception e) {
@@ -95,6 +238,20 @@ public class PersonService {
         }
     }
 
+    private static PersonDelta deltaOf(Person person, UpdatePersonRequestDto request) {
+        PersonDelta delta = new PersonDelta(person.getId(), person.getTaxNumber());
+        if (!Objects.equals(person.getFirstName(), request.getFirstName())) {
+            delta.setFirstName(request.getFirstName());
+        }
+        if (!Objects.equals(person.getLastName(), request.getLastName())) {
+            delta.setLastName(request.getLastName());
+        }
+        if (!Objects.equals(person.getDateOfBirth(), request.getDateOfBirth())) {
+            delta.setDateOfBirth(request.getDateOfBirth());
+        }
+        return delta;
+    }
+
     public OperationResponseDto deletePerson(UUID id) {
         log.info("Deleting person with ID: {}", id);
 
@@ -108,12 +265,14 @@ public class PersonService {
             log.debug("Found person for deletion: ID={}, taxNumber={}", person.getId(), person.getTaxNumber());
 
             PersonEvent event = new PersonEvent(PersonEvent.EventType.DELETE, person);
+            operationTracker.register(event.getEventId());
             producer.publishEvent(event);
 
             log.info("Person deletion event published successfully for ID: {}", id);
             return new OperationResponseDto(
                     "Person deletion request successfully sent to Kafka for processing",
-                    "DELETE"
+                    "DELETE",
+                    event.getEventId()
             );
 
         } catch (Exception ex) {
@@ -126,11 +285,7 @@ public class PersonService {
         log.info("Retrieving all persons");
 
         try {
-            List<PersonResponseDto> persons = repository
-                    .findAll()
-                    .stream()
-                    .map(this::mapToDto)
-                    .collect(Collectors.toList());
+            List<PersonResponseDto> persons = readRepository.findAll();
 
             log.info("Retrieved {} persons", persons.size());
             return persons;
@@ -141,12 +296,41 @@ public class PersonService {
         }
     }
 
+    /**
+     * Streams every person to the given sink straight from a database cursor, so memory use does not grow
+     * with the table size. An exception thrown by the sink (e.g. the client went away) aborts the scan
+     * and closes the cursor.
+     */
+    @Transactional(readOnly = true)
+    public long streamAll(Consumer<PersonResponseDto> sink) {
+        log.info("Streaming all persons");
+
+        long count = readRepository.streamAll(sink);
+
+        log.info("Streamed {} persons", count);
+        return count;
+    }
+
+    /**
+     * Existence check that answers definite misses from the {@link TaxNumberIndex} and cached persons
+     * from the local cache, and only asks the database otherwise.
+     */
+    @Transactional(readOnly = true)
+    public boolean existsByTaxNumber(String taxNumber) {
+        if (!taxNumberIndex.mightContain(taxNumber)) {
+            return false;
+        }
+        if (personCache.peekByTaxNumber(taxNumber).isPresent()) {
+            return true;
+        }
+        return repository.existsByTaxNumber(taxNumber);
+    }
+
     public PersonResponseDto findById(UUID id) {
         log.info("Finding person by ID: {}", id);
 
         try {
-            return repository.findById(id)
-                    .map(this::mapToDto)
+            return personCache.getById(id, () -> idLookups.execute(id, () -> readRepository.findById(id)))
                     .orElseThrow(() -> {
                         log.warn("Person not found with ID: {}", id);
                         return PersonNotFoundException.byId(id);
@@ -162,8 +346,11 @@ public class PersonService {
         log.info("Finding person by tax number: {}", taxNumber);
 
         try {
-            return repository.findByTaxNumber(taxNumber)
-                    .map(this::mapToDto)
+            // cache misses for the same (hot) tax number share one query
+            return personCache.getByTaxNumber(taxNumber,
+                            () -> taxNumberIndex.mightContain(taxNumber)
+                                    ? taxNumberLookups.execute(taxNumber, () -> readRepository.findByTaxNumber(taxNumber))
+                                    : Optional.empty())
                     .orElseThrow(() -> {
                         log.warn("Person not found with tax number: {}", taxNumber);
                         return PersonNotFoundException.byTaxNumber(taxNumber);
@@ -174,6 +361,68 @@ public class PersonService {
         }
     }
 
+    /**
+     * Current version of a person for conditional requests, from the local cache or a version-only query.
+     * Empty when the person does not exist.
+     */
+    public Optional<PersonVersionDto> findVersionById(UUID id) {
+        Optional<PersonResponseDto> cached = personCache.peekById(id);
+        return cached.isPresent() ? cached.map(this::toVersion) : readRepository.findVersionById(id);
+    }
+
+    public Optional<PersonVersionDto> findVersionByTaxNumber(String taxNumber) {
+        Optional<PersonResponseDto> cached = personCache.peekByTaxNumber(taxNumber);
+        return cached.isPresent() ? cached.map(this::toVersion) : readRepository.findVersionByTaxNumber(taxNumber);
+    }
+
+    private PersonVersionDto toVersion(PersonResponseDto person) {
+        PersonVersionDto version = new PersonVersionDto();
+        version.setVersion(person.getVersion());
+        version.setAge(person.getAge());
+        return version;
+    }
+
+    /**
+     * Resolves many persons with at most one query per key type. Results follow the request order,
+     * ids first and then tax numbers, with {@code found=false} entries for keys that do not exist.
+     */
+    public List<PersonLookupResultDto> lookup(PersonLookupRequestDto request) {
+        log.info("Looking up {} ids and {} tax numbers", request.getIds().size(), request.getTaxNumbers().size());
+
+        try {
+            List<PersonLookupResultDto> results = new ArrayList<>(request.getIds().size() + request.getTaxNumbers().size());
+
+            if (!request.getIds().isEmpty()) {
+                Map<UUID, PersonResponseDto> byId = indexBy(
+                        readRepository.findAllByIds(request.getIds()), PersonResponseDto::getId);
+                request.getIds().forEach(id -> results.add(new PersonLookupResultDto(String.valueOf(id), byId.get(id))));
+            }
+
+            if (!request.getTaxNumbers().isEmpty()) {
+                Map<String, PersonResponseDto> byTaxNumber = indexBy(
+                        readRepository.findAllByTaxNumbers(request.getTaxNumbers()), PersonResponseDto::getTaxNumber);
+                request.getTaxNumbers().forEach(taxNumber ->
+                        results.add(new PersonLookupResultDto(taxNumber, byTaxNumber.get(taxNumber))));
+            }
+
+            return results;
+
+        } catch (Exception ex) {
+            log.error("Error looking up persons", ex);
+            throw new PersonServiceException("Failed to look up persons", ex);
+        }
+    }
+
+    private <K> Map<K, PersonResponseDto> indexBy(List<PersonResponseDto> persons, Function<PersonResponseDto, K> key) {
+        Map<K, PersonResponseDto> index = new HashMap<>(persons.size() * 2);
+        for (PersonResponseDto person : persons) {
+            index.put(key.apply(person), person);
+        }
+        return index;
+    }
+
+    // Filters are defined by PersonSpecification, so search stays on JPA; read-only skips dirty checking
+    @Transactional(readOnly = true)
     public Page<PersonResponseDto> findByNameAndAge(
             String firstNamePrefix,
             String lastNamePrefix,
@@ -187,6 +436,71 @@ public class PersonService {
         return repository.findAll(spec, pageable).map(this::mapToDto);
     }
 
+    /**
+     * Keyset variant of {@link #findByNameAndAge}: pages are addressed by an opaque cursor holding the
+     * last (firstName, id) seen, so no COUNT query is issued and deep pages cost the same as the first one:
+     * each page walks the (first_name, id) index from the cursor until it has {@code size} matches.
+     * The optional total is the planner's row estimate for the same filters, only computed for the first page.
+     */
+    @Transactional(readOnly = true)
+    public PersonCursorPageResponseDto findByNameAndAgeAfter(
+            String firstNamePrefix,
+            String lastNamePrefix,
+            Integer minAge,
+            int size,
+            String cursor,
+            boolean includeEstimate
+    ) {
+        log.info("Cursor search with firstNamePrefix: {}, lastNamePrefix: {}, minAge: {}, size: {}",
+                firstNamePrefix, lastNamePrefix, minAge, size);
+
+        Specification<Person> spec = PersonSpecification.hasNameAndAge(firstNamePrefix, lastNamePrefix, minAge);
+        KeysetScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : decodeCursor(cursor);
+
+        Window<Person> window = repository.findBy(spec, query -> query
+                .sortBy(CURSOR_SORT)
+                .limit(size)
+                .scroll(position));
+
+        PersonCursorPageResponseDto page = new PersonCursorPageResponseDto();
+        page.setContent(window.map(this::mapToDto).getContent());
+        page.setSize(window.size());
+        page.setHasNext(window.hasNext());
+        if (window.hasNext() && !window.isEmpty()) {
+            page.setNextCursor(encodeCursor((KeysetScrollPosition) window.positionAt(window.size() - 1)));
+        }
+        if (includeEstimate && position.isInitial()) {
+            long estimate = readRepository.estimateSearchCount(firstNamePrefix, lastNamePrefix, minAge);
+            page.setEstimatedTotal(estimate >= 0 ? estimate : null);
+        }
+        return page;
+    }
+
+    private String encodeCursor(KeysetScrollPosition position) {
+        Map<String, Object> keys = position.getKeys();
+        String raw = keys.get("firstName") + String.valueOf(CURSOR_SEPARATOR) + keys.get("id");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private KeysetScrollPosition decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(CURSOR_SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Malformed search cursor");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("firstName", raw.substring(0, separator));
+            keys.put("id", UUID.fromString(raw.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed search cursor", ex);
+        }
+    }
+
     private PersonResponseDto mapToDto(Person person) {
         PersonResponseDto dto = new PersonResponseDto();
 
@@ -196,38 +510,52 @@ public class PersonService {
         dto.setAge(person.getAge());
         dto.setTaxDebt(person.getTaxDebt());
         dto.setTaxNumber(person.getTaxNumber());
+        dto.setVersion(person.getVersion());
 
         return dto;
     }
 
-    public void createPersonFromEvent(Person data) {
+    // The event is claimed in the processed_event ledger in the same transaction as its writes, so a
+    // redelivered event is skipped. The transaction is programmatic so that failures surface from here,
+    // after rollback, rather than at commit in the caller.
+    public void createPersonFromEvent(PersonEvent event) {
+        Person data = event.getPerson();
 
         log.info("Creating person from Kafka event: taxNumber={}",
                 data.getTaxNumber());
 
-        if ("retry".equals(data.getFirstName())) {
+        if (isSimulatedFailure(event)) {
             log.warn("Simulating DB timeout for CREATE...");
             throw new RecoverableDataAccessException("Simulated DB down during CREATE");
         }
 
         try {
-            if (repository.existsByTaxNumber(data.getTaxNumber())) {
-                log.warn("Person with tax number {} already exists. Skipping creation",
-                        data.getTaxNumber());
-                return;
-            }
-
-            Person person = new Person();
-            person.setFirstName(data.getFirstName());
-            person.setLastName(data.getLastName());
-            person.setDateOfBirth(data.getDateOfBirth());
-            person.setTaxNumber(data.getTaxNumber());
-
-            Person saved = repository.save(person);
-            log.info("Person created successfully from Kafka: ID={}, taxNumber={}",
-                    saved.getId(), saved.getTaxNumber());
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!claim(event)) {
+                    return;
+                }
+                if (repository.existsByTaxNumber(data.getTaxNumber())) {
+                    log.warn("Person with tax number {} already exists. Skipping creation",
+                            data.getTaxNumber());
+                    return;
+                }
+
+                Person person = new Person();
+                person.setFirstName(data.getFirstName());
+                person.setLastName(data.getLastName());
+                person.setDateOfBirth(data.getDateOfBirth());
+                person.setTaxNumber(data.getTaxNumber());
+
+                Person saved = repository.saveAndFlush(person);
+                personCache.evict(saved.getId(), saved.getTaxNumber(), null);
+                // a rollback only leaves a false positive behind
+                taxNumberIndex.add(saved.getTaxNumber());
+                log.info("Person created successfully from Kafka: ID={}, taxNumber={}",
+                        saved.getId(), saved.getTaxNumber());
+            });
 
         } catch (DataIntegrityViolationException ex) {
+            // lost a race on the tax number; the rolled back claim lets a redelivery skip it as existing
             log.warn("Data integrity violation while creating person: {}. Skipping.", ex.getMessage());
         } catch (Exception ex) {
             log.error("Error creating person from Kafka event: {}", ex.getMessage(), ex);
@@ -235,35 +563,43 @@ public class PersonService {
         }
     }
 
-    public void updatePersonFromEvent(Person data) {
+    public void updatePersonFromEvent(PersonEvent event) {
+        Person data = event.getPerson();
 
         log.info("Updating person from Kafka event. Looking up by TaxNumber: {}", data.getTaxNumber());
 
-        if ("retry".equals(data.getFirstName())) {
+        if (isSimulatedFailure(event)) {
             log.warn("Simulating DB timeout for UPDATE...");
             throw new RecoverableDataAccessException("Simulated DB down during UPDATE");
         }
 
         try {
-            // Try finding by Tax Number instead of ID for robust batch testing
-            repository.findByTaxNumber(data.getTaxNumber()).ifPresentOrElse(
-                    person -> {
-                        try {
-                            person.updatePersonInfo(data.getFirstName(), data.getLastName(), data.getDateOfBirth());
-                            Person updated = repository.save(person);
-                            log.info("Person updated successfully from Kafka: ID={}", updated.getId());
-                        } catch (Exception ex) {
-                            log.error("Error saving updated person", ex);
-                            throw new KafkaConsumerException("Failed to save updated person", ex);
-                        }
-                    },
-                    () -> {
-                        // This is CRITICAL for the retry test.
-                        // If Create failed (and is in retry), this lookup returns Empty.
-                        // We must Throw Exception so the Batch Consumer knows to WAIT or Fail.
-                        log.warn("Update failed: Person with TaxNumber={} not found", data.getTaxNumber());
-                        throw new PersonNotFoundException("Person not found for update (likely pending creation)");
-                    });
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!claim(event)) {
+                    return;
+                }
+                // Try finding by Tax Number instead of ID for robust batch testing
+                repository.findByTaxNumber(data.getTaxNumber()).ifPresentOrElse(
+                        person -> {
+                            try {
+                                Long staleVersion = person.getVersion();
+                                person.updatePersonInfo(data.getFirstName(), data.getLastName(), data.getDateOfBirth());
+                                Person updated = repository.saveAndFlush(person);
+                                personCache.evict(updated.getId(), updated.getTaxNumber(), staleVersion);
+                                log.info("Person updated successfully from Kafka: ID={}", updated.getId());
+                            } catch (Exception ex) {
+                                log.error("Error saving updated person", ex);
+                                throw new KafkaConsumerException("Failed to save updated person", ex);
+                            }
+                        },
+                        () -> {
+                            // This is CRITICAL for the retry test.
+                            // If Create failed (and is in retry), this lookup returns Empty.
+                            // We must Throw Exception so the Batch Consumer knows to WAIT or Fail.
+                            log.warn("Update failed: Person with TaxNumber={} not found", data.getTaxNumber());
+                            throw new PersonNotFoundException("Person not found for update (likely pending creation)");
+                        });
+            });
 
         } catch (Exception ex) {
             log.error("Error updating person from Kafka event: {}", ex.getMessage());
@@ -272,27 +608,159 @@ public class PersonService {
         }
     }
 
-    public void deletePersonFromEvent(Person data) {
+    /**
+     * Applies a PATCH event with one UPDATE of just the changed columns. The base version is informational:
+     * a person changed since then still takes the delta, as the changed fields are the newer ones.
+     */
+    public void patchPersonFromEvent(PersonEvent event) {
+        PersonDelta delta = event.getDelta();
+        if (delta == null || delta.getId() == null) {
+            throw new IllegalArgumentException("PATCH event without a person id");
+        }
+
+        log.info("Patching person from Kafka event: ID={}, baseVersion={}", delta.getId(), event.getBaseVersion());
+
+        if (isSimulatedFailure(event)) {
+            log.warn("Simulating DB timeout for PATCH...");
+            throw new RecoverableDataAccessException("Simulated DB down during PATCH");
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!claim(event)) {
+                    return;
+                }
+                if (delta.isEmpty()) {
+                    log.info("PATCH for person ID={} changes nothing", delta.getId());
+                    return;
+                }
+                long previousVersion = patchRepository.patch(delta).orElseThrow(() -> {
+                    log.warn("Patch failed: Person with ID={} not found", delta.getId());
+                    return new PersonNotFoundException("Person not found for patch (likely pending creation)");
+                });
+                if (event.getBaseVersion() != null && previousVersion > event.getBaseVersion()) {
+                    log.info("Patched person ID={} at version {}, newer than base version {}",
+                            delta.getId(), previousVersion, event.getBaseVersion());
+                }
+                personCache.evict(delta.getId(), delta.getTaxNumber(), previousVersion);
+            });
+
+        } catch (Exception ex) {
+            log.error("Error patching person from Kafka event: {}", ex.getMessage());
+            throw new KafkaConsumerException("Failed to patch person", ex);
+        }
+    }
+
+    public void deletePersonFromEvent(PersonEvent event) {
+        Person data = event.getPerson();
         UUID id = data.getId();
 
         log.info("Deleting person from Kafka event: ID={}", id);
 
-        if ("retry".equals(data.getFirstName())) {
+        if (isSimulatedFailure(event)) {
             log.warn("Simulating DB timeout for DELETE...");
             throw new RecoverableDataAccessException("Simulated DB down during DELETE");
         }
 
         try {
-            if (repository.existsById(id)) {
-                repository.deleteById(id);
-                log.info("Person with ID={} deleted successfully from Kafka", id);
-            } else {
-                log.warn("Person with ID={} not found for deletion. Might already be deleted.", id);
-            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!claim(event)) {
+                    return;
+                }
+                repository.findById(id).ifPresentOrElse(
+                        person -> {
+                            repository.delete(person);
+                            repository.flush();
+                            personCache.evict(id, person.getTaxNumber(), person.getVersion());
+                            log.info("Person with ID={} deleted successfully from Kafka", id);
+                        },
+                        () -> log.warn("Person with ID={} not found for deletion. Might already be deleted.", id));
+            });
 
         } catch (Exception ex) {
             log.error("Error deleting person from Kafka event : {}", ex.getMessage(), ex);
             throw new KafkaConsumerException("Failed to delete person", ex);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies the net effect of several events for one tax number, folded by the batch consumer, in one
+     * transaction that claims all of them, with the same outcome as applying them one by one: the CREATE
+     * only inserts a person that does not exist yet, the latest UPDATE data goes to whichever person is
+     * there, and a DELETE removes the person unless the CREATE would have inserted it, in which case the two
+     * cancel out. Returns the write that took effect, or {@code null} when nothing changed. Failures are
+     * thrown as they are, with nothing applied, so the caller can fall back to applying the events one by one.
+     */
+    public PersonEvent.EventType applyCoalescedEvents(List<PersonEvent> events, Person create, Person update, Person delete) {
+        String taxNumber = events.get(0).getPerson().getTaxNumber();
+        log.info("Applying {} coalesced events for taxNumber={}", events.size(), taxNumber);
+
+        return transactionTemplate.execute(status -> {
+            // events seen before in another grouping are still covered, as the net effect holds the latest data
+            if (processedEvents.claim(events).isEmpty()) {
+                log.info("Coalesced events were already applied. Skipping.");
+                return null;
+            }
+            Optional<Person> existing = create != null || (update != null && delete == null)
+                    ? repository.findByTaxNumber(taxNumber)
+                    : Optional.empty();
+
+            if (delete != null) {
+                if (create != null && existing.isEmpty()) {
+                    return null;
+                }
+                repository.findById(delete.getId()).ifPresentOrElse(
+                        person -> {
+                            repository.delete(person);
+                            repository.flush();
+                            personCache.evict(person.getId(), person.getTaxNumber(), person.getVersion());
+                        },
+                        () -> log.warn("Person with ID={} not found for deletion. Might already be deleted.", delete.getId()));
+                return PersonEvent.EventType.DELETE;
+            }
+
+            if (create != null && existing.isEmpty()) {
+                Person data = update != null ? update : create;
+                Person person = new Person();
+                person.setFirstName(data.getFirstName());
+                person.setLastName(data.getLastName());
+                person.setDateOfBirth(data.getDateOfBirth());
+                person.setTaxNumber(taxNumber);
+                Person saved = repository.saveAndFlush(person);
+                personCache.evict(saved.getId(), saved.getTaxNumber(), null);
+                taxNumberIndex.add(saved.getTaxNumber());
+                return PersonEvent.EventType.CREATE;
+            }
+
+            if (update == null) {
+                log.warn("Person with tax number {} already exists. Skipping creation", taxNumber);
+                return null;
+            }
+            Person person = existing.orElseThrow(
+                    () -> new PersonNotFoundException("Person not found for update (likely pending creation)"));
+            Long staleVersion = person.getVersion();
+            person.updatePersonInfo(update.getFirstName(), update.getLastName(), update.getDateOfBirth());
+            Person updated = repository.saveAndFlush(person);
+            personCache.evict(updated.getId(), updated.getTaxNumber(), staleVersion);
+            return PersonEvent.EventType.UPDATE;
+        });
+    }
+
+    /**
+     * Events for a person named "retry" fail on purpose, to exercise the retry paths.
+     */
+    public static boolean isSimulatedFailure(PersonEvent event) {
+        String firstName = event.getPerson() != null
+                ? event.getPerson().getFirstName()
+                : event.getDelta() != null ? event.getDelta().getFirstName() : null;
+        return SIMULATED_FAILURE_NAME.equals(firstName);
+    }
+
+    private boolean claim(PersonEvent event) {
+        if (processedEvents.claim(event)) {
+            return true;
+        }
+        log.info("Event {} was already applied. Skipping.", event.getEventId());
+        return false;
+    }
+}
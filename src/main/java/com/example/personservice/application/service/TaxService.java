@@ -1,33 +1,79 @@
 package com.example.personservice.application.service;
 
+import com.example.personservice.application.dto.bulk.BulkIngestResponseDto;
+import com.example.personservice.application.dto.bulk.BulkLineResultDto;
 import com.example.personservice.application.dto.person.OperationResponseDto;
+import com.example.personservice.application.dto.tax.TaxDebtLineDto;
+import com.example.personservice.application.dto.tax.TaxLookupResultDto;
 import com.example.personservice.application.dto.tax.TaxResponseDto;
+import com.example.personservice.application.service.bulk.NdjsonBulkReader;
 import com.example.personservice.domain.model.Person;
+import com.example.personservice.application.dto.person.PersonResponseDto;
+import com.example.personservice.application.dto.person.PersonVersionDto;
+import com.example.personservice.infrastructure.cache.PersonCache;
+import com.example.personservice.infrastructure.cache.TaxNumberIndex;
+import com.example.personservice.infrastructure.concurrency.SingleFlight;
+import com.example.personservice.infrastructure.concurrency.SingleFlightFactory;
 import com.example.personservice.infrastructure.exception.KafkaProducerException;
 import com.example.personservice.infrastructure.exception.PersonNotFoundException;
 import com.example.personservice.infrastructure.exception.TaxCalculationException;
+import com.example.personservice.infrastructure.repository.PersonReadRepository;
 import com.example.personservice.infrastructure.repository.PersonRepository;
+import com.example.personservice.infrastructure.repository.ProcessedEventRepository;
 import com.example.personservice.infrastructure.messaging.events.TaxCalculationEvent;
 import com.example.personservice.infrastructure.messaging.kafka.producers.TaxCalculationEventProducer;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.RecoverableDataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Slf4j
 @Service
 @Transactional
 public class TaxService {
     private final PersonRepository repository;
+    private final PersonReadRepository readRepository;
     private final TaxCalculationEventProducer producer;
+    private final NdjsonBulkReader bulkReader;
+    private final PersonCache personCache;
+    private final OperationTracker operationTracker;
+    private final TaxNumberIndex taxNumberIndex;
+    private final ProcessedEventRepository processedEvents;
+    private final SingleFlight<String, Optional<PersonResponseDto>> taxDebtLookups;
 
-    public TaxService(PersonRepository repository, TaxCalculationEventProducer producer) {
+    public TaxService(
+            PersonRepository repository,
+            PersonReadRepository readRepository,
+            TaxCalculationEventProducer producer,
+            NdjsonBulkReader bulkReader,
+            PersonCache personCache,
+            OperationTracker operationTracker,
+            TaxNumberIndex taxNumberIndex,
+            ProcessedEventRepository processedEvents,
+            SingleFlightFactory singleFlightFactory
+    ) {
         this.repository = repository;
+        this.readRepository = readRepository;
         this.producer = producer;
+        this.bulkReader = bulkReader;
+        this.personCache = personCache;
+        this.operationTracker = operationTracker;
+        this.taxNumberIndex = taxNumberIndex;
+        this.processedEvents = processedEvents;
+        this.taxDebtLookups = singleFlightFactory.create("tax-debt.by-tax-number");
     }
 
     public OperationResponseDto handleTaxCalculation(String taxNumber, BigDecimal amount) {
@@ -48,11 +94,13 @@ public class TaxService {
                     amount
             );
 
+            operationTracker.register(event.getEventId());
             publishTaxCalculationEvent(event, taxNumber, amount);
             log.info("Successfully initiated tax debt addition for taxNumber={}, amount={}", taxNumber, amount);
             return new OperationResponseDto(
                     "Tax debt addition request successfully sent to Kafka for processing",
-                    "ADD_TAX_DEBT"
+                    "ADD_TAX_DEBT",
+                    event.getEventId()
             );
 
         } catch (PersonNotFoundException | KafkaProducerException ex) {
@@ -68,17 +116,74 @@ public class TaxService {
         }
     }
 
+    /**
+     * Adds tax debts from an NDJSON stream of {@link TaxDebtLineDto} lines.
+     * Runs outside a transaction so no connection is held while the body is being read.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public BulkIngestResponseDto bulkAddTaxDebt(InputStream body) {
+        log.info("Starting bulk tax debt addition");
+        BulkIngestResponseDto summary = bulkReader.newSummary();
+
+        try {
+            bulkReader.read(body, TaxDebtLineDto.class, summary, chunk -> publishTaxChunk(chunk, summary));
+        } catch (IOException ex) {
+            log.error("Error reading bulk tax debt body after {} lines", summary.getTotalLines(), ex);
+            throw new TaxCalculationException("Failed to read bulk tax debt request", ex);
+        }
+
+        log.info("Bulk tax debt addition finished: total={}, accepted={}, rejected={}, failed={}",
+                summary.getTotalLines(), summary.getAccepted(), summary.getRejected(), summary.getFailed());
+        return summary;
+    }
+
+    private void publishTaxChunk(List<NdjsonBulkReader.ParsedLine<TaxDebtLineDto>> chunk, BulkIngestResponseDto summary) {
+        Set<String> taxNumbers = new HashSet<>();
+        chunk.forEach(line -> taxNumbers.add(line.getValue().getTaxNumber()));
+        taxNumbers.removeIf(taxNumber -> !taxNumberIndex.mightContain(taxNumber));
+        Set<String> existing = taxNumbers.isEmpty() ? Set.of() : repository.findExistingTaxNumbers(taxNumbers);
+
+        List<NdjsonBulkReader.ParsedLine<TaxDebtLineDto>> toPublish = new ArrayList<>(chunk.size());
+        List<TaxCalculationEvent> events = new ArrayList<>(chunk.size());
+        for (NdjsonBulkReader.ParsedLine<TaxDebtLineDto> line : chunk) {
+            TaxDebtLineDto request = line.getValue();
+            if (!existing.contains(request.getTaxNumber())) {
+                summary.addError(new BulkLineResultDto(line.getLineNumber(), BulkLineResultDto.Status.REJECTED,
+                        request.getTaxNumber(), "Person not found with tax number: " + request.getTaxNumber()));
+                continue;
+            }
+
+            toPublish.add(line);
+            events.add(new TaxCalculationEvent(
+                    TaxCalculationEvent.EventType.ADD,
+                    request.getTaxNumber(),
+                    request.getAmount()
+            ));
+        }
+
+        bulkReader.awaitPublished(toPublish, producer.publishTaxDebtsCreated(events), TaxDebtLineDto::getTaxNumber, summary);
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
     public TaxResponseDto getTaxDebt(String taxNumber) {
         log.info("Retrieving tax debt for taxNumber={}", taxNumber);
 
         try {
-            Person person = findPersonByTaxNumber(taxNumber);
-            BigDecimal taxDebt = person.getTaxDebt();
-
-            log.info("Retrieved tax debt={} for taxNumber={}", taxDebt, taxNumber);
+            // shares the person cache entry; cache misses for the same (hot) tax number share one query
+            PersonResponseDto person = personCache.getByTaxNumber(taxNumber,
+                            () -> taxNumberIndex.mightContain(taxNumber)
+                                    ? taxDebtLookups.execute(taxNumber, () -> readRepository.findByTaxNumber(taxNumber))
+                                    : Optional.empty())
+                    .orElseThrow(() -> {
+                        log.warn("Person not found with taxNumber={}", taxNumber);
+                        return PersonNotFoundException.byTaxNumber(taxNumber);
+                    });
 
             TaxResponseDto response = new TaxResponseDto();
-            response.setAmount(taxDebt);
+            response.setAmount(person.getTaxDebt());
+            response.setVersion(person.getVersion());
+
+            log.info("Retrieved tax debt={} for taxNumber={}", response.getAmount(), taxNumber);
             return response;
 
         } catch (PersonNotFoundException ex) {
@@ -94,22 +199,73 @@ public class TaxService {
         }
     }
 
+    /**
+     * Current version of the person owning the tax debt, for conditional requests; served from the local
+     * cache or a version-only query. Empty when the person does not exist.
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public Optional<Long> findTaxDebtVersion(String taxNumber) {
+        Optional<PersonResponseDto> cached = personCache.peekByTaxNumber(taxNumber);
+        if (cached.isPresent()) {
+            return cached.map(PersonResponseDto::getVersion);
+        }
+        return readRepository.findVersionByTaxNumber(taxNumber).map(PersonVersionDto::getVersion);
+    }
+
+    /**
+     * Resolves the tax debt of many persons with a single query; results follow the request order
+     * and tax numbers without a person come back with {@code found=false}.
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<TaxLookupResultDto> lookupTaxDebts(List<String> taxNumbers) {
+        log.info("Looking up tax debt for {} tax numbers", taxNumbers.size());
+
+        try {
+            Map<String, BigDecimal> debts = readRepository.findTaxDebtsByTaxNumbers(taxNumbers);
+
+            List<TaxLookupResultDto> results = new ArrayList<>(taxNumbers.size());
+            for (String taxNumber : taxNumbers) {
+                boolean found = debts.containsKey(taxNumber);
+                results.add(new TaxLookupResultDto(taxNumber, found, debts.get(taxNumber)));
+            }
+            return results;
+
+        } catch (DataAccessException ex) {
+            log.error("Database error while looking up tax debts: {}", ex.getMessage(), ex);
+            throw new TaxCalculationException("Database error occurred while looking up tax debts", ex);
+        }
+    }
+
     /**
      * Process tax calculation event from Kafka consumer
-     * This method is called by the batch consumers to actually update the database
+     * This method is called by the batch consumers to actually update the database.
+     * Events are claimed in the processed_event ledger in the same transaction, so redelivered ones are skipped.
      */
     @Transactional(rollbackOn = Exception.class)
     public void processBatch(List<TaxCalculationEvent> events) {
         log.info("[Tax Service] Starting atomic batch processing for {} events", events.size());
 
+        Set<UUID> claimed = processedEvents.claim(events);
         for (TaxCalculationEvent event : events) {
-            processTaxCalculationEvent(event);
+            if (!claimed.contains(event.getEventId())) {
+                log.info("[Tax Service] Event {} was already applied. Skipping.", event.getEventId());
+                continue;
+            }
+            applyTaxCalculation(event);
         }
 
         log.info("[Tax Service] Batch DB operations completed successfully (pending commit)");
     }
 
     public void processTaxCalculationEvent(TaxCalculationEvent event) {
+        if (!processedEvents.claim(event)) {
+            log.info("[Tax Service] Event {} was already applied. Skipping.", event.getEventId());
+            return;
+        }
+        applyTaxCalculation(event);
+    }
+
+    private void applyTaxCalculation(TaxCalculationEvent event) {
         String taxNumber = event.getTaxId();
         BigDecimal amount = event.getAmount();
 
@@ -125,8 +281,11 @@ public class TaxService {
             Person person = repository.findByTaxNumber(taxNumber)
                     .orElseThrow(() -> new PersonNotFoundException("Person with tax number " + taxNumber + " not found"));
 
+            Long staleVersion = person.getVersion();
             person.addTaxDebt(amount);
             repository.save(person);
+            // runs after the batch transaction commits
+            personCache.evict(person.getId(), taxNumber, staleVersion);
 
             log.info("Added tax debt of {} to person {}", amount, taxNumber);
 
@@ -138,6 +297,10 @@ public class TaxService {
     }
 
     private Person findPersonByTaxNumber(String taxNumber) {
+        if (!taxNumberIndex.mightContain(taxNumber)) {
+            log.warn("Person not found with taxNumber={}", taxNumber);
+            throw PersonNotFoundException.byTaxNumber(taxNumber);
+        }
         try {
             return repository.findByTaxNumber(taxNumber)
                     .orElseThrow(() -> {
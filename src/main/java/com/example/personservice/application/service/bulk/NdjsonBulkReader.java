@@ -0,0 +1,180 @@
+package com.example.personservice.application.service.bulk;
+
+import com.example.personservice.application.dto.bulk.BulkIngestResponseDto;
+import com.example.personservice.application.dto.bulk.BulkLineResultDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads an NDJSON request body one chunk at a time. Lines of a chunk are parsed and bean-validated in parallel;
+ * invalid lines are recorded as rejected in the summary and only valid ones are handed to the chunk handler.
+ * At most one chunk of lines is held in memory, and the summary lists at most {@code bulk.max-reported-errors}
+ * failed lines.
+ */
+@Slf4j
+@Component
+public class NdjsonBulkReader {
+
+    public static final int CHUNK_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int maxReportedErrors;
+
+    public NdjsonBulkReader(
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${bulk.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Returns an empty summary that lists at most the configured number of failed lines.
+     */
+    public BulkIngestResponseDto newSummary() {
+        return new BulkIngestResponseDto(maxReportedErrors);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class ParsedLine<T> {
+        private final long lineNumber;
+        private final T value;
+        private final String error;
+
+        boolean isValid() {
+            return error == null;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class RawLine {
+        private final long lineNumber;
+        private final String text;
+    }
+
+    public <T> void read(
+            InputStream body,
+            Class<T> type,
+            BulkIngestResponseDto summary,
+            Consumer<List<ParsedLine<T>>> chunkHandler
+    ) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(type);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        List<RawLine> chunk = new ArrayList<>(CHUNK_SIZE);
+        long lineNumber = 0;
+        String text;
+        while ((text = lines.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            chunk.add(new RawLine(lineNumber, text));
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(chunk, reader, type, summary, chunkHandler);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, reader, type, summary, chunkHandler);
+        }
+
+        log.info("[Bulk] Finished reading {} lines of {}", lineNumber, type.getSimpleName());
+    }
+
+    private <T> void processChunk(
+            List<RawLine> chunk,
+            ObjectReader reader,
+            Class<T> type,
+            BulkIngestResponseDto summary,
+            Consumer<List<ParsedLine<T>>> chunkHandler
+    ) {
+        List<ParsedLine<T>> parsed = chunk.parallelStream()
+                .map(line -> this.<T>parseAndValidate(line, reader))
+                .collect(Collectors.toList());
+
+        List<ParsedLine<T>> valid = new ArrayList<>(parsed.size());
+        for (ParsedLine<T> line : parsed) {
+            if (line.isValid()) {
+                valid.add(line);
+            } else {
+                summary.addError(new BulkLineResultDto(
+                        line.getLineNumber(), BulkLineResultDto.Status.REJECTED, null, line.getError()));
+            }
+        }
+        summary.setTotalLines(summary.getTotalLines() + parsed.size());
+
+        if (!valid.isEmpty()) {
+            chunkHandler.accept(valid);
+        }
+        log.debug("[Bulk] Processed chunk of {} {} lines ({} valid)", parsed.size(), type.getSimpleName(), valid.size());
+    }
+
+    /**
+     * Waits for a chunk's sends to complete and records the outcome of each line in the summary.
+     * {@code futures} must be in the same order as {@code lines}.
+     */
+    public <T> void awaitPublished(
+            List<ParsedLine<T>> lines,
+            List<? extends CompletableFuture<?>> futures,
+            Function<T, String> key,
+            BulkIngestResponseDto summary
+    ) {
+        for (int i = 0; i < lines.size(); i++) {
+            ParsedLine<T> line = lines.get(i);
+            try {
+                futures.get(i).join();
+                summary.setAccepted(summary.getAccepted() + 1);
+            } catch (Exception ex) {
+                log.error("[Bulk] Failed to publish line {}: {}", line.getLineNumber(), ex.getMessage());
+                summary.addError(new BulkLineResultDto(line.getLineNumber(), BulkLineResultDto.Status.FAILED,
+                        key.apply(line.getValue()), "Failed to publish event"));
+            }
+        }
+    }
+
+    private <T> ParsedLine<T> parseAndValidate(RawLine line, ObjectReader reader) {
+        T value;
+        try {
+            value = reader.readValue(line.getText());
+        } catch (JsonProcessingException ex) {
+            return new ParsedLine<>(line.getLineNumber(), null, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return new ParsedLine<>(line.getLineNumber(), null, message);
+        }
+        return new ParsedLine<>(line.getLineNumber(), value, null);
+    }
+}
@@ -46,6 +46,11 @@ public class Person {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // bumped on every update; also the source of the HTTP ETag
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public void updatePersonInfo(String firstName, String lastName, LocalDate dateOfBirth) {
         this.firstName = firstName;
         this.lastName = lastName;
@@ -0,0 +1,95 @@
+package com.example.personservice.infrastructure.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Bloom filter over strings. Bits are only ever set, so concurrent {@link #put} and
+ * {@link #mightContain} calls need no coordination; a lookup racing with a put may miss it.
+ */
+final class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final LongAdder insertions = new LongAdder();
+
+    private BloomFilter(long bitCount, int hashCount, long capacity) {
+        this.words = new AtomicLongArray(Math.toIntExact(bitCount / Long.SIZE));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sizes the filter so that {@code capacity} entries give the requested false positive rate.
+     */
+    static BloomFilter create(long capacity, double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bits = Math.max(Long.SIZE, (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        int hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+        return new BloomFilter(bits, hashes, capacity);
+    }
+
+    void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+        insertions.increment();
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long insertions() {
+        return insertions.sum();
+    }
+
+    long sizeInBytes() {
+        return bitCount / Byte.SIZE;
+    }
+
+    // FNV-1a over the UTF-16 code units, finished with the murmur3 mixer for better bit dispersion
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
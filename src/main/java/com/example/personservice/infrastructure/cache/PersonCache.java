@@ -0,0 +1,310 @@
+package com.example.personservice.infrastructure.cache;
+
+import com.example.personservice.application.dto.person.PersonResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of {@link PersonResponseDto} keyed by id and by tax number.
+ * <p>
+ * Lookups go to a bounded in-process Caffeine cache (W-TinyLFU eviction) first, then to Redis, then to the
+ * loader. Loaded values are written to both tiers under both keys. Writers call {@link #evict} once their
+ * change is committed; the eviction removes the Redis entries and is published on a Redis channel so every
+ * node (including this one) drops its local copies. Redis problems degrade to a local-only cache.
+ * <p>
+ * Redis entries carry the row version, and both tiers are guarded against a load that read the row before a
+ * concurrent change committed: locally by a generation counter, in Redis by writing only versions newer than
+ * what the key holds. An eviction leaves a short-lived tombstone with the superseded version in place of the
+ * entry, so a slow loader on another node cannot put that version back after the eviction.
+ * <p>
+ * The cache does not coalesce loads itself; callers wrap the loader in a SingleFlight for stampede protection.
+ */
+@Slf4j
+@Component
+public class PersonCache {
+    private static final String REDIS_KEY_PREFIX = "person:cache:v3:";
+    private static final String ID_KEY = "id:";
+    private static final String TAX_NUMBER_KEY = "tax:";
+    private static final char MESSAGE_SEPARATOR = '|';
+    private static final char VALUE_SEPARATOR = '|';
+
+    // Values are "<id>|<version>|<json>"; a tombstone has no json. Both scripts take ARGV id, version, value, ttl
+    // and leave a key alone when it already holds the same person at a higher version (or, when writing, an
+    // equal one).
+    private static final RedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>("""
+            local written = 0
+            for _, key in ipairs(KEYS) do
+              local current = redis.call('GET', key)
+              local id, version
+              if current then id, version = string.match(current, '^([^|]*)|(%d+)|') end
+              if id ~= ARGV[1] or tonumber(version) < tonumber(ARGV[2]) then
+                redis.call('SET', key, ARGV[3], 'PX', ARGV[4])
+                written = written + 1
+              end
+            end
+            return written
+            """, Long.class);
+
+    private static final RedisScript<Long> TOMBSTONE_SCRIPT = new DefaultRedisScript<>("""
+            local written = 0
+            for _, key in ipairs(KEYS) do
+              local current = redis.call('GET', key)
+              local id, version
+              if current then id, version = string.match(current, '^([^|]*)|(%d+)|') end
+              if id ~= ARGV[1] or tonumber(version) <= tonumber(ARGV[2]) then
+                redis.call('SET', key, ARGV[3], 'PX', ARGV[4])
+                written = written + 1
+              end
+            end
+            return written
+            """, Long.class);
+
+    private final PersonCacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, PersonResponseDto> local;
+
+    // bumped by every eviction; a load that raced with an eviction is not cached
+    private final AtomicLong evictions = new AtomicLong();
+    private final List<BiConsumer<String, String>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisErrors;
+
+    public PersonCache(
+            PersonCacheProperties properties,
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .expireAfterWrite(properties.getLocalTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "person.local");
+        this.redisHits = meterRegistry.counter("person.cache.redis", "result", "hit");
+        this.redisMisses = meterRegistry.counter("person.cache.redis", "result", "miss");
+        this.redisErrors = meterRegistry.counter("person.cache.redis", "result", "error");
+    }
+
+    public Optional<PersonResponseDto> getById(UUID id, Supplier<Optional<PersonResponseDto>> loader) {
+        return get(ID_KEY + id, loader);
+    }
+
+    public Optional<PersonResponseDto> getByTaxNumber(String taxNumber, Supplier<Optional<PersonResponseDto>> loader) {
+        return get(TAX_NUMBER_KEY + taxNumber, loader);
+    }
+
+    /**
+     * Returns the locally cached person without loading it; used to answer conditional requests.
+     */
+    public Optional<PersonResponseDto> peekById(UUID id) {
+        return peek(ID_KEY + id);
+    }
+
+    public Optional<PersonResponseDto> peekByTaxNumber(String taxNumber) {
+        return peek(TAX_NUMBER_KEY + taxNumber);
+    }
+
+    /**
+     * Drops the person from all tiers on all nodes. Inside a transaction this happens after commit,
+     * so a concurrent reader cannot re-cache the old row in between; without one it happens immediately.
+     * {@code staleVersion} is the version the change superseded (for a delete, the deleted row's version):
+     * copies at or below it are no longer written to Redis. Any argument may be {@code null} when unknown,
+     * e.g. for a newly created person, which only deletes the Redis entries.
+     */
+    public void evict(UUID id, String taxNumber, Long staleVersion) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, taxNumber, staleVersion);
+                }
+            });
+        } else {
+            evictNow(id, taxNumber, staleVersion);
+        }
+    }
+
+    /**
+     * Handles an eviction broadcast by another node (or echoed back from this one).
+     */
+    public void onInvalidationMessage(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0) {
+            log.warn("[Cache] Ignoring malformed invalidation message: {}", message);
+            return;
+        }
+        String id = message.substring(0, separator);
+        String taxNumber = message.substring(separator + 1);
+        evictLocal(id.isEmpty() ? null : id, taxNumber.isEmpty() ? null : taxNumber);
+    }
+
+    /**
+     * Registers a callback for local evictions, for caches derived from person data. It receives the
+     * id and tax number (either may be {@code null}) on every node that drops the person.
+     */
+    public void addEvictionListener(BiConsumer<String, String> listener) {
+        evictionListeners.add(listener);
+    }
+
+    private Optional<PersonResponseDto> get(String key, Supplier<Optional<PersonResponseDto>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+
+        PersonResponseDto cached = local.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long generation = evictions.get();
+        PersonResponseDto shared = readRedis(key);
+        if (shared != null) {
+            putLocal(shared, generation);
+            return Optional.of(shared);
+        }
+
+        Optional<PersonResponseDto> loaded = loader.get();
+        loaded.ifPresent(person -> {
+            if (putLocal(person, generation)) {
+                writeRedis(person);
+            }
+        });
+        return loaded;
+    }
+
+    private Optional<PersonResponseDto> peek(String key) {
+        return properties.isEnabled() ? Optional.ofNullable(local.getIfPresent(key)) : Optional.empty();
+    }
+
+    private boolean putLocal(PersonResponseDto person, long generation) {
+        if (evictions.get() != generation) {
+            return false;
+        }
+        local.put(ID_KEY + person.getId(), person);
+        local.put(TAX_NUMBER_KEY + person.getTaxNumber(), person);
+        return true;
+    }
+
+    private void evictNow(UUID id, String taxNumber, Long staleVersion) {
+        evictLocal(id != null ? id.toString() : null, taxNumber);
+
+        try {
+            List<String> redisKeys = new ArrayList<>(2);
+            if (id != null) {
+                redisKeys.add(REDIS_KEY_PREFIX + ID_KEY + id);
+            }
+            if (taxNumber != null) {
+                redisKeys.add(REDIS_KEY_PREFIX + TAX_NUMBER_KEY + taxNumber);
+            }
+            if (id != null && staleVersion != null) {
+                String tombstone = id.toString() + VALUE_SEPARATOR + staleVersion + VALUE_SEPARATOR;
+                redisTemplate.execute(TOMBSTONE_SCRIPT, redisKeys, id.toString(), staleVersion.toString(),
+                        tombstone, String.valueOf(properties.getTombstoneTtl().toMillis()));
+            } else {
+                redisTemplate.delete(redisKeys);
+            }
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(),
+                    (id != null ? id.toString() : "") + MESSAGE_SEPARATOR + (taxNumber != null ? taxNumber : ""));
+        } catch (DataAccessException ex) {
+            redisErrors.increment();
+            log.warn("[Cache] Failed to evict person id={}, taxNumber={} from Redis: {}", id, taxNumber, ex.getMessage());
+        }
+    }
+
+    private void evictLocal(String id, String taxNumber) {
+        evictions.incrementAndGet();
+        String idKey = id != null ? ID_KEY + id : null;
+        String taxNumberKey = taxNumber != null ? TAX_NUMBER_KEY + taxNumber : null;
+        // the entry found under one key tells us the other key even when the caller did not know it
+        for (String key : new String[]{idKey, taxNumberKey}) {
+            if (key == null) {
+                continue;
+            }
+            PersonResponseDto removed = local.asMap().remove(key);
+            if (removed != null) {
+                local.invalidate(ID_KEY + removed.getId());
+                local.invalidate(TAX_NUMBER_KEY + removed.getTaxNumber());
+                notifyEvictionListeners(removed.getId().toString(), removed.getTaxNumber());
+            }
+        }
+        notifyEvictionListeners(id, taxNumber);
+    }
+
+    private void notifyEvictionListeners(String id, String taxNumber) {
+        for (BiConsumer<String, String> listener : evictionListeners) {
+            listener.accept(id, taxNumber);
+        }
+    }
+
+    private PersonResponseDto readRedis(String key) {
+        try {
+            String value = redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + key);
+            int versionEnd = value != null ? value.indexOf(VALUE_SEPARATOR, value.indexOf(VALUE_SEPARATOR) + 1) : -1;
+            if (versionEnd < 0 || versionEnd == value.length() - 1) {
+                // absent or a tombstone
+                redisMisses.increment();
+                return null;
+            }
+            redisHits.increment();
+            return objectMapper.readValue(value.substring(versionEnd + 1), PersonResponseDto.class);
+        } catch (DataAccessException | JsonProcessingException ex) {
+            redisErrors.increment();
+            log.debug("[Cache] Redis read failed for {}: {}", key, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(PersonResponseDto person) {
+        try {
+            String id = person.getId().toString();
+            String value = id + VALUE_SEPARATOR + person.getVersion() + VALUE_SEPARATOR + objectMapper.writeValueAsString(person);
+            redisTemplate.execute(WRITE_SCRIPT,
+                    List.of(REDIS_KEY_PREFIX + ID_KEY + id, REDIS_KEY_PREFIX + TAX_NUMBER_KEY + person.getTaxNumber()),
+                    id, String.valueOf(person.getVersion()), value, String.valueOf(jitteredTtl().toMillis()));
+        } catch (DataAccessException | JsonProcessingException ex) {
+            redisErrors.increment();
+            log.debug("[Cache] Redis write failed for person {}: {}", person.getId(), ex.getMessage());
+        }
+    }
+
+    private Duration jitteredTtl() {
+        long base = properties.getRedisTtl().toMillis();
+        long jitter = (long) (base * properties.getRedisTtlJitter() * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(base + jitter);
+    }
+}
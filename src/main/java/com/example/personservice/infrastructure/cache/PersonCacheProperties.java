@@ -0,0 +1,27 @@
+package com.example.personservice.infrastructure.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "person-cache")
+public class PersonCacheProperties {
+    private boolean enabled = true;
+
+    private long localMaxSize = 10_000;
+    private Duration localTtl = Duration.ofMinutes(5);
+
+    private Duration redisTtl = Duration.ofMinutes(30);
+    // Redis TTLs are stretched by a random 0..jitter fraction so entries loaded together do not expire together
+    private double redisTtlJitter = 0.2;
+    // how long an eviction keeps a superseded version out of Redis; must exceed the slowest load
+    private Duration tombstoneTtl = Duration.ofMinutes(1);
+
+    private String invalidationChannel = "person:cache:invalidate";
+}
@@ -0,0 +1,195 @@
+package com.example.personservice.infrastructure.cache;
+
+import com.example.personservice.infrastructure.concurrency.ExecutorNames;
+import com.example.personservice.infrastructure.concurrency.ExecutorRegistry;
+import com.example.personservice.infrastructure.repository.PersonReadRepository;
+import com.example.personservice.infrastructure.repository.PersonRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory Bloom filter over all tax numbers, used to answer "does this person exist?" without a query
+ * when the answer is a definite no. A positive answer still has to be confirmed against the database.
+ * <p>
+ * The filter is built by a streaming scan shortly after startup and rebuilt periodically, which also drops
+ * deleted tax numbers. In between, the node that inserts a person adds its tax number directly, and other
+ * nodes learn it from the person cache eviction broadcast sent after commit. Bulk loads that bypass the
+ * consumers call {@link #requestRebuild} when done, which rebuilds the filter on every node. Until the first
+ * build finishes, or when the person cache (and with it the broadcast) is disabled, every lookup answers
+ * "maybe".
+ * <p>
+ * A broadcast can be lost, so a definite miss is only good enough to answer a read. Consumers must not
+ * reject work on it; they check the database.
+ */
+@Slf4j
+@Component
+public class TaxNumberIndex {
+    public static final String REBUILD_CHANNEL = "tax-number-index:rebuild";
+
+    // room for growth until the next rebuild
+    private static final double CAPACITY_HEADROOM = 1.5;
+
+    private final PersonReadRepository readRepository;
+    private final PersonRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StringRedisTemplate redisTemplate;
+    private final ExecutorService rebuilds;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+
+    private volatile BloomFilter filter;
+    // receives concurrent additions while a rebuild scan is running
+    private volatile BloomFilter building;
+    private volatile long lastCount;
+
+    private final Counter definiteMisses;
+    private final Counter possibleHits;
+
+    public TaxNumberIndex(
+            PersonReadRepository readRepository,
+            PersonRepository repository,
+            PlatformTransactionManager transactionManager,
+            PersonCache personCache,
+            PersonCacheProperties cacheProperties,
+            StringRedisTemplate redisTemplate,
+            ExecutorRegistry executorRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${tax-number-index.enabled:true}") boolean enabled,
+            @Value("${tax-number-index.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${tax-number-index.min-capacity:100000}") long minCapacity
+    ) {
+        this.readRepository = readRepository;
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.redisTemplate = redisTemplate;
+        this.rebuilds = executorRegistry.executor(ExecutorNames.TAX_NUMBER_INDEX);
+        this.enabled = enabled && cacheProperties.isEnabled();
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+
+        this.definiteMisses = meterRegistry.counter("tax-number.index.lookups", "result", "miss");
+        this.possibleHits = meterRegistry.counter("tax-number.index.lookups", "result", "maybe");
+        meterRegistry.gauge("tax-number.index.entries", this, index -> {
+            BloomFilter current = index.filter;
+            return current != null ? current.insertions() : 0;
+        });
+
+        if (this.enabled) {
+            personCache.addEvictionListener((id, taxNumber) -> {
+                if (taxNumber != null) {
+                    add(taxNumber);
+                }
+            });
+        } else {
+            log.info("[TaxNumberIndex] Disabled; existence checks go to the database");
+        }
+    }
+
+    /**
+     * Returns {@code false} only if no person with this tax number existed at the last rebuild or has been
+     * written since.
+     */
+    public boolean mightContain(String taxNumber) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        boolean maybe = current.mightContain(taxNumber);
+        (maybe ? possibleHits : definiteMisses).increment();
+        return maybe;
+    }
+
+    public void add(String taxNumber) {
+        // read the rebuild target first: a rebuild publishes the new filter before clearing it
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(taxNumber);
+        }
+        BloomFilter current = filter;
+        if (current != null && current != next) {
+            current.put(taxNumber);
+        }
+    }
+
+    public void addAll(Collection<String> taxNumbers) {
+        taxNumbers.forEach(this::add);
+    }
+
+    /**
+     * Rebuilds the filter on every node, e.g. after rows were inserted without going through the consumers.
+     * If the broadcast fails, only this node rebuilds.
+     */
+    public void requestRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(REBUILD_CHANNEL, "rebuild");
+        } catch (DataAccessException ex) {
+            log.warn("[TaxNumberIndex] Failed to broadcast rebuild request, rebuilding locally: {}", ex.getMessage());
+            onRebuildMessage();
+        }
+    }
+
+    /**
+     * Handles a rebuild request from any node (including this one) off the listener thread. A request that
+     * arrives while one is already queued is covered by the queued one.
+     */
+    public void onRebuildMessage() {
+        try {
+            rebuilds.execute(this::rebuild);
+        } catch (RejectedExecutionException ex) {
+            log.debug("[TaxNumberIndex] Rebuild already queued");
+        }
+    }
+
+    // synchronized: a rebuild requested while one is scanning must start after it, or it could miss rows
+    @Scheduled(
+            initialDelayString = "${tax-number-index.initial-delay:0s}",
+            fixedDelayString = "${tax-number-index.rebuild-interval:6h}"
+    )
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            long estimate = Math.max(repository.estimateRowCount(), lastCount);
+            long capacity = Math.max(minCapacity, (long) (estimate * CAPACITY_HEADROOM));
+            BloomFilter next = BloomFilter.create(capacity, falsePositiveRate);
+            building = next;
+
+            Long count = readOnlyTransaction.execute(status -> readRepository.streamTaxNumbers(next::put));
+            filter = next;
+            lastCount = count != null ? count : 0;
+
+            log.info("[TaxNumberIndex] Rebuilt with {} tax numbers (capacity {}, {} KB) in {} ms",
+                    lastCount, capacity, next.sizeInBytes() / 1024,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            if (lastCount > capacity) {
+                log.warn("[TaxNumberIndex] {} tax numbers exceed the capacity of {}; false positives will be " +
+                        "more frequent until the next rebuild", lastCount, capacity);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("[TaxNumberIndex] Rebuild failed, keeping the previous filter: {}", ex.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.personservice.infrastructure.concurrency;
+
+import com.example.personservice.infrastructure.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many threads use a shared resource at once. With virtual threads the number of concurrent
+ * callers is no longer bounded by a pool size, so resources with their own small limits (JDBC connections,
+ * blocking Redis connections) are guarded here and callers queue in FIFO order instead of timing out
+ * inside the resource's pool. A caller that cannot get a permit within {@code maxWait} gets a
+ * {@link BulkheadFullException}.
+ */
+public class Bulkhead {
+    private final String name;
+    private final Semaphore permits;
+    private final Duration maxWait;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWait = maxWait;
+        this.rejected = meterRegistry.counter("bulkhead.rejected", "name", name);
+        meterRegistry.gauge("bulkhead.available", Tags.of("name", name), permits, Semaphore::availablePermits);
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable action) {
+        acquire();
+        try {
+            action.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new BulkheadFullException(name, maxWait);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(name, maxWait);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.personservice.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * The shared bulkheads; currently one for event processing, sized to a share of the JDBC pool so consumers
+ * can never hold every connection and starve web requests.
+ */
+@Component
+public class Bulkheads {
+    private final Bulkhead database;
+
+    public Bulkheads(
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${bulkhead.database.pool-share:0.4}") double databasePoolShare,
+            @Value("${bulkhead.database.max-wait:5s}") Duration databaseMaxWait
+    ) {
+        int databaseMaxConcurrent = Math.max(1, Math.min(poolSize - 1, (int) (poolSize * databasePoolShare)));
+        this.database = new Bulkhead("database", databaseMaxConcurrent, databaseMaxWait, meterRegistry);
+    }
+
+    public Bulkhead database() {
+        return database;
+    }
+}
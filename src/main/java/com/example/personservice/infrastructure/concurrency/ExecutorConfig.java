@@ -0,0 +1,34 @@
+package com.example.personservice.infrastructure.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Executors for blocking work outside the request threads. They follow {@code spring.threads.virtual.enabled}
+ * (Java 21+): with virtual threads every task gets its own thread and concurrency is limited by the
+ * {@link Bulkheads} instead of the pool size; otherwise they come from the {@link ExecutorRegistry}.
+ */
+@Slf4j
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Runs the per-key processing of a Kafka batch; a key may block for a long time waiting on its retry.
+     */
+    @Bean
+    public AsyncTaskExecutor keyExecutor(Environment environment, ExecutorRegistry executorRegistry) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("[Executors] Per-key batch processing runs on virtual threads");
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("person-key-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        return new TaskExecutorAdapter(executorRegistry.executor(ExecutorNames.PERSON_BATCH_KEYS));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.personservice.infrastructure.concurrency;
+
+/**
+ * Pool names used with the {@link ExecutorRegistry}; also the {@code executors.pools.*} keys and metric names.
+ */
+public final class ExecutorNames {
+    public static final String PERSON_BATCH_KEYS = "person-batch-keys";
+    public static final String PERSON_IMPORT = "person-import";
+    public static final String PERSON_EXPORT = "person-export";
+    public static final String PERSON_EXPORT_PARTS = "person-export-parts";
+    public static final String TAX_NUMBER_INDEX = "tax-number-index";
+
+    private ExecutorNames() {
+    }
+}
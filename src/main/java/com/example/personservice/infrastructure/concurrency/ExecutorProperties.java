@@ -0,0 +1,43 @@
+package com.example.personservice.infrastructure.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "executors")
+public class ExecutorProperties {
+    // keyed by pool name; pools without an entry use the defaults below
+    private Map<String, Pool> pools = new HashMap<>();
+
+    public Pool pool(String name) {
+        return pools.getOrDefault(name, new Pool());
+    }
+
+    public enum RejectionPolicy {
+        // throw RejectedExecutionException to the submitter
+        ABORT,
+        // run the task on the submitting thread, slowing the producer down; only for pools whose
+        // submitters may block, never for work submitted from timer or I/O callback threads
+        CALLER_RUNS
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int coreSize = 4;
+        private int maxSize = 4;
+        private int queueCapacity = 1000;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+        // how long shutdown waits for queued and running tasks before interrupting them
+        private Duration awaitTermination = Duration.ofSeconds(30);
+    }
+}
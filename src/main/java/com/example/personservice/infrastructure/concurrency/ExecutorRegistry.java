@@ -0,0 +1,102 @@
+package com.example.personservice.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns every thread pool of the service. Pools are created on first use from {@code executors.pools.<name>.*},
+ * have bounded queues and an explicit rejection policy, and are drained on shutdown after the Kafka
+ * containers and web server have stopped. Each pool is registered with Micrometer's
+ * {@link ExecutorServiceMetrics} under its name: pool size, active threads and queue depth as gauges, plus the
+ * {@code executor} (execution time) and {@code executor.idle} (time spent queued) timers.
+ */
+@Slf4j
+@Component
+public class ExecutorRegistry implements DisposableBean {
+    private final ExecutorProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ManagedPool> pools = new ConcurrentHashMap<>();
+
+    public ExecutorRegistry(ExecutorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ExecutorService executor(String name) {
+        return pools.computeIfAbsent(name, this::createExecutor).instrumented;
+    }
+
+    private ManagedPool createExecutor(String name) {
+        ExecutorProperties.Pool pool = properties.pool(name);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                pool.getCoreSize(),
+                Math.max(pool.getCoreSize(), pool.getMaxSize()),
+                pool.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(pool.getQueueCapacity()),
+                threadFactory(name),
+                rejectionHandler(name, pool.getRejectionPolicy())
+        );
+        log.info("[Executors] Created pool {}: core={}, max={}, queue={}, rejection={}",
+                name, pool.getCoreSize(), pool.getMaxSize(), pool.getQueueCapacity(), pool.getRejectionPolicy());
+        return new ManagedPool(name, executor, ExecutorServiceMetrics.monitor(meterRegistry, executor, name), pool);
+    }
+
+    private RejectedExecutionHandler rejectionHandler(String name, ExecutorProperties.RejectionPolicy policy) {
+        var rejections = meterRegistry.counter("executor.rejected", "name", name);
+        return (task, executor) -> {
+            rejections.increment();
+            if (policy == ExecutorProperties.RejectionPolicy.CALLER_RUNS && !executor.isShutdown()) {
+                task.run();
+                return;
+            }
+            throw new RejectedExecutionException("Executor " + name + " is saturated or shut down");
+        };
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(pool -> pool.executor.shutdown());
+        for (ManagedPool pool : pools.values()) {
+            try {
+                if (!pool.executor.awaitTermination(pool.settings.getAwaitTermination().toMillis(), TimeUnit.MILLISECONDS)) {
+                    log.warn("[Executors] Pool {} did not drain in {}; interrupting {} remaining tasks",
+                            pool.name, pool.settings.getAwaitTermination(), pool.executor.shutdownNow().size());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                pool.executor.shutdownNow();
+            }
+        }
+    }
+
+    private record ManagedPool(
+            String name,
+            ThreadPoolExecutor executor,
+            ExecutorService instrumented,
+            ExecutorProperties.Pool settings
+    ) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.personservice.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader, callers arriving while it
+ * is in flight wait for and share its result. A waiter gives up after {@code maxWait} and runs the loader
+ * itself, so a stuck leader cannot hold the others hostage. Nothing is cached once the load completes.
+ */
+public class SingleFlight<K, V> {
+
+    private final Duration maxWait;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.leaders = meterRegistry.counter("singleflight.calls", "name", name, "result", "leader");
+        this.coalesced = meterRegistry.counter("singleflight.calls", "name", name, "result", "coalesced");
+        this.timeouts = meterRegistry.counter("singleflight.calls", "name", name, "result", "timeout");
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing == null) {
+            leaders.increment();
+            try {
+                V value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error ex) {
+                call.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            return existing.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight load of " + key, ex);
+        }
+    }
+}
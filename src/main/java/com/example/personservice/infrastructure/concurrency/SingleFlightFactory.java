@@ -0,0 +1,22 @@
+package com.example.personservice.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class SingleFlightFactory {
+    private final MeterRegistry meterRegistry;
+    private final Duration maxWait;
+
+    public SingleFlightFactory(MeterRegistry meterRegistry, @Value("${single-flight.max-wait:2s}") Duration maxWait) {
+        this.meterRegistry = meterRegistry;
+        this.maxWait = maxWait;
+    }
+
+    public <K, V> SingleFlight<K, V> create(String name) {
+        return new SingleFlight<>(name, maxWait, meterRegistry);
+    }
+}
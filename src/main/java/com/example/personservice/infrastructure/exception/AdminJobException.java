@@ -0,0 +1,11 @@
+package com.example.personservice.infrastructure.exception;
+
+public class AdminJobException extends RuntimeException {
+    public AdminJobException(String message) {
+        super(message);
+    }
+
+    public AdminJobException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
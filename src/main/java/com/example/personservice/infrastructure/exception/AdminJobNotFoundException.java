@@ -0,0 +1,13 @@
+package com.example.personservice.infrastructure.exception;
+
+import java.util.UUID;
+
+public class AdminJobNotFoundException extends RuntimeException {
+    public AdminJobNotFoundException(String message) {
+        super(message);
+    }
+
+    public static AdminJobNotFoundException byId(UUID jobId) {
+        return new AdminJobNotFoundException("Job not found with ID: " + jobId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.personservice.infrastructure.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class AdmissionRejectedException extends RuntimeException {
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.personservice.infrastructure.exception;
+
+import java.time.Duration;
+
+public class BulkheadFullException extends RuntimeException {
+    public BulkheadFullException(String bulkhead, Duration maxWait) {
+        super("No " + bulkhead + " permit available within " + maxWait.toMillis() + " ms");
+    }
+}
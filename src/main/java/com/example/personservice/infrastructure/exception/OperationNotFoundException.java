@@ -0,0 +1,13 @@
+package com.example.personservice.infrastructure.exception;
+
+import java.util.UUID;
+
+public class OperationNotFoundException extends RuntimeException {
+    public OperationNotFoundException(String message) {
+        super(message);
+    }
+
+    public static OperationNotFoundException byEventId(UUID eventId) {
+        return new OperationNotFoundException("Operation not found with event ID: " + eventId);
+    }
+}
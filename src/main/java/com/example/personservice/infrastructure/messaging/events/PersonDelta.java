@@ -0,0 +1,37 @@
+package com.example.personservice.infrastructure.messaging.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Changed fields of a person, carried by PATCH events. The id and tax number identify the person; every
+ * other field is {@code null} when it did not change and is left out of the message.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PersonDelta {
+    private UUID id;
+    private String taxNumber;
+
+    private String firstName;
+    private String lastName;
+    private LocalDate dateOfBirth;
+
+    public PersonDelta(UUID id, String taxNumber) {
+        this.id = id;
+        this.taxNumber = taxNumber;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return firstName == null && lastName == null && dateOfBirth == null;
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.personservice.infrastructure.messaging.events;
 
 import com.example.personservice.domain.model.Person;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 @Getter
 @Setter
 @EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PersonEvent extends DomainEvent<PersonEvent.EventType> {
-    public enum EventType { CREATE, UPDATE, DELETE }
+    // PATCH carries only the changed fields in delta, based on the person at baseVersion
+    public enum EventType { CREATE, UPDATE, DELETE, PATCH }
 
     private Person person;
 
+    private PersonDelta delta;
+    private Long baseVersion;
+
     public PersonEvent() {
         super(null);
     }
@@ -19,4 +26,18 @@ public class PersonEvent extends DomainEvent<PersonEvent.EventType> {
         super(eventType);
         this.person = person;
     }
-}
\ No newline at end of file
+
+    public PersonEvent(PersonDelta delta, Long baseVersion) {
+        super(EventType.PATCH);
+        this.delta = delta;
+        this.baseVersion = baseVersion;
+    }
+
+    @JsonIgnore
+    public String getTaxNumber() {
+        if (person != null) {
+            return person.getTaxNumber();
+        }
+        return delta != null ? delta.getTaxNumber() : null;
+    }
+}
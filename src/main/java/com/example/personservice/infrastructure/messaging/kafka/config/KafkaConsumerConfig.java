@@ -3,6 +3,8 @@ package com.example.personservice.infrastructure.messaging.kafka.config;
 import com.example.personservice.infrastructure.exception.KafkaConsumerException;
 import com.example.personservice.infrastructure.messaging.events.PersonEvent;
 import com.example.personservice.infrastructure.messaging.events.TaxCalculationEvent;
+import com.example.personservice.infrastructure.messaging.kafka.engine.KeyParallelEngines;
+import com.example.personservice.infrastructure.messaging.kafka.engine.KeyParallelProperties;
 import com.example.personservice.infrastructure.messaging.kafka.retry.SingleErrorHandler;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -31,6 +33,7 @@ import org.springframework.util.backoff.FixedBackOff;
 import org.springframework.web.client.ResourceAccessException;
 
 import java.net.SocketException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -41,6 +44,10 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // idle events let DelayedDelivery resume held-back retry partitions while nothing arrives
+    @Value("${kafka.retry.due-check-interval:500ms}")
+    private Duration dueCheckInterval;
+
     @Bean
     public CommonErrorHandler commonErrorHandler() {
         // retry 0 times for fatal errors (deserialization, etc.)
@@ -76,19 +83,25 @@ public class KafkaConsumerConfig {
 
         factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(0L, 0L)));
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setIdleEventInterval(dueCheckInterval.toMillis());
         return factory;
     }
 
     @Bean("personBatchContainerFactory")
     public ConcurrentKafkaListenerContainerFactory<String, PersonEvent> personBatchContainerFactory(
-            ConsumerFactory<String, PersonEvent> consumerFactory) {
+            ConsumerFactory<String, PersonEvent> consumerFactory,
+            KeyParallelEngines keyParallelEngines,
+            KeyParallelProperties keyParallelProperties) {
         ConcurrentKafkaListenerContainerFactory<String, PersonEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
         factory.setBatchListener(true);
         factory.setConcurrency(3);
         factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(1000L, 3L)));
+        // offsets are committed by the key-parallel engines, never by the container
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setConsumerRebalanceListener(keyParallelEngines);
+        factory.getContainerProperties().setIdleEventInterval(keyParallelProperties.getIdleInterval().toMillis());
         return factory;
     }
 
@@ -107,6 +120,7 @@ public class KafkaConsumerConfig {
         factory.setConcurrency(3);
         factory.setBatchListener(false);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setIdleEventInterval(dueCheckInterval.toMillis());
         return factory;
     }
 
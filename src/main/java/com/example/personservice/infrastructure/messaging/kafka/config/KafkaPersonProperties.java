@@ -18,4 +18,7 @@ public class KafkaPersonProperties {
     private ProcessingMode defaultMode = ProcessingMode.SINGLE;
     private boolean enableTopicSelection = true;
 
+    // publish updates as PATCH events with only the changed fields; enable once every consumer understands them
+    private boolean deltaEvents = false;
+
 }
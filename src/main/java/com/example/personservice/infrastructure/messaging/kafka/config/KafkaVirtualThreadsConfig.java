@@ -0,0 +1,34 @@
+package com.example.personservice.infrastructure.messaging.kafka.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+
+/**
+ * Runs the consumer threads of every listener container factory on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set on Java 21+. Spring Boot only does this for the factory it
+ * auto-configures; ours are all declared by hand.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class KafkaVirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor kafkaVirtualThreadsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> factory) {
+                    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(beanName + "-");
+                    executor.setVirtualThreads(true);
+                    factory.getContainerProperties().setListenerTaskExecutor(executor);
+                }
+                return bean;
+            }
+        };
+    }
+}
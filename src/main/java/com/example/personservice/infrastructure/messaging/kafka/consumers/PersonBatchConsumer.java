@@ -1,39 +1,70 @@
 package com.example.personservice.infrastructure.messaging.kafka.consumers;
 
 import com.example.personservice.application.service.PersonService;
+import com.example.personservice.infrastructure.concurrency.Bulkheads;
 import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import com.example.personservice.infrastructure.messaging.kafka.engine.KeyParallelEngine;
+import com.example.personservice.infrastructure.messaging.kafka.engine.KeyParallelEngines;
+import com.example.personservice.infrastructure.messaging.kafka.engine.KeyProcessor;
 import com.example.personservice.infrastructure.messaging.kafka.retry.ErrorClassifier;
 import com.example.personservice.infrastructure.messaging.redis.RetryLatch;
-import lombok.RequiredArgsConstructor;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Applies batched person events in parallel across tax numbers and in order per tax number. A key whose
+ * event went to retry is parked until the retry resolves, while the other keys and later polls keep flowing;
+ * see {@link KeyParallelEngine}. Chains of events for a tax number within a poll are folded into their net
+ * effect by {@link PersonEventCoalescer} and applied in one transaction.
+ */
 @Component
 @Slf4j
-@RequiredArgsConstructor
-public class PersonBatchConsumer {
+public class PersonBatchConsumer implements KeyProcessor<PersonBatchConsumer.KeyState, PersonEvent> {
+
+    private static final Duration RETRY_WAIT = Duration.ofSeconds(60);
 
     private final PersonService personService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ErrorClassifier errorClassifier;
     private final RetryLatch retryLatch;
-
-    // Thread pool for parallel processing of different keys within a batch
-    private final ExecutorService executor = Executors.newFixedThreadPool(10);
+    private final OperationTracker operationTracker;
+    private final Bulkheads bulkheads;
+
+    // Parallel processing of different keys; virtual threads when enabled
+    private final AsyncTaskExecutor keyExecutor;
+    private final KeyParallelEngine<KeyState, PersonEvent> engine;
+
+    public PersonBatchConsumer(
+            PersonService personService,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ErrorClassifier errorClassifier,
+            RetryLatch retryLatch,
+            OperationTracker operationTracker,
+            Bulkheads bulkheads,
+            AsyncTaskExecutor keyExecutor,
+            KeyParallelEngines engines
+    ) {
+        this.personService = personService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.errorClassifier = errorClassifier;
+        this.retryLatch = retryLatch;
+        this.operationTracker = operationTracker;
+        this.bulkheads = bulkheads;
+        this.keyExecutor = keyExecutor;
+        this.engine = engines.create("person-batch", this);
+    }
 
     @KafkaListener(
             topics = "person.kafka.batch",
@@ -42,114 +73,123 @@ public class PersonBatchConsumer {
     )
     public void consumeBatch(
             List<ConsumerRecord<String, PersonEvent>> records,
-            Acknowledgment ack
+            Consumer<?, ?> consumer
     ) {
-
         log.info("[Batch] Received batch of size: {}", records.size());
+        // returns right away; offsets are committed by the engine as keys complete
+        engine.accept(records, consumer);
+    }
+
+    @Override
+    public KeyState open(String taxNumber) {
+        retryLatch.clearSignal(taxNumber);
+        return new KeyState();
+    }
+
+    @Override
+    public CompletionStage<Void> process(
+            String taxNumber,
+            KeyState state,
+            ConsumerRecord<String, PersonEvent> record
+    ) {
+        PersonEvent event = record.value();
 
-        // 1. Group records by key (TaxNumber) to preserve order PER KEY
-        Map<String, List<ConsumerRecord<String, PersonEvent>>> groupedRecords =
-                records.stream()
-                        .collect(Collectors.groupingBy(
-                                ConsumerRecord::key,
-                                LinkedHashMap::new,
-                                Collectors.toList()
-                        ));
-
-        // 2. Process each key in parallel
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-
-        for (Map.Entry<String, List<ConsumerRecord<String, PersonEvent>>> entry : groupedRecords.entrySet()) {
-            String taxNumber = entry.getKey();
-            List<ConsumerRecord<String, PersonEvent>> eventsForKey = entry.getValue();
-
-            CompletableFuture<Void> future =
-                    CompletableFuture.runAsync(
-                            () -> processKeyEvents(taxNumber, eventsForKey),
-                            executor
-                    );
-
-            futures.add(future);
+        if (state.criticalFailed) {
+            log.warn(
+                    "[Batch-Key:{}] Previous CREATE. Sending {} to DLT.",
+                    taxNumber,
+                    event.getEventType()
+            );
+            kafkaTemplate.send("person.kafka.dlt", taxNumber, event);
+            operationTracker.markFailed(event.getEventId());
+            return CompletableFuture.completedFuture(null);
         }
 
-        // 3. Wait for ALL keys to finish before ACK
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        // If already retrying, park this key until retry resolves
+        if (state.retrying) {
+            log.info(
+                    "[Batch-Key:{}] Dependent event ({}). Waiting for previous retry...",
+                    taxNumber,
+                    event.getEventType()
+            );
+
+            return retryLatch.awaitResult(taxNumber, RETRY_WAIT, keyExecutor)
+                    .thenAccept(status -> {
+                        state.retrying = false;
+                        if (status == RetryLatch.RetryStatus.SUCCESS) {
+                            log.info(
+                                    "[Batch-Key:{}] Dependency resolved. Resuming.",
+                                    taxNumber
+                            );
+                        } else {
+                            log.error(
+                                    "[Batch-Key:{}] Dependency failed/timed-out. Sending {} to DLT.",
+                                    taxNumber,
+                                    event.getEventType()
+                            );
+                            kafkaTemplate.send("person.kafka.dlt", taxNumber, event);
+                        }
+                        // as before: the event is still attempted, since a timed-out retry may yet succeed;
+                        // its outcome decides the tracked status
+                        attempt(state, record);
+                    });
+        }
 
-        log.info("[Batch] All keys processed. Acknowledging batch.");
-        ack.acknowledge();
+        attempt(state, record);
+        return CompletableFuture.completedFuture(null);
     }
 
-    private void processKeyEvents(
+    @Override
+    public List<List<ConsumerRecord<String, PersonEvent>>> coalesce(
             String taxNumber,
-            List<ConsumerRecord<String, PersonEvent>> events
+            List<ConsumerRecord<String, PersonEvent>> records
     ) {
-        retryLatch.clearSignal(taxNumber);
-
-        boolean isRetrying = false;
-        boolean isCriticalFailed = false;
+        return PersonEventCoalescer.group(records);
+    }
 
-        for (ConsumerRecord<String, PersonEvent> record : events) {
-            PersonEvent event = record.value();
+    @Override
+    public CompletionStage<Void> processGroup(
+            String taxNumber,
+            KeyState state,
+            List<ConsumerRecord<String, PersonEvent>> records
+    ) {
+        // after a failure on this key the events need the per-event retry and DLT handling
+        if (state.retrying || state.criticalFailed) {
+            return KeyProcessor.super.processGroup(taxNumber, state, records);
+        }
 
-            if (isCriticalFailed) {
-                log.warn(
-                        "[Batch-Key:{}] Previous CREATE. Sending {} to DLT.",
-                        taxNumber,
-                        event.getEventType()
-                );
-                kafkaTemplate.send("person.kafka.dlt", taxNumber, event);
-                continue;
-            }
+        List<PersonEvent> events = records.stream().map(ConsumerRecord::value).toList();
+        PersonEventCoalescer.NetEffect net = PersonEventCoalescer.fold(events);
+        PersonEvent.EventType applied;
+        try {
+            applied = bulkheads.database().call(
+                    () -> personService.applyCoalescedEvents(events, net.create(), net.update(), net.delete()));
+        } catch (Exception e) {
+            // nothing was applied; the events go through the usual path, failures included
+            log.warn("[Batch-Key:{}] Coalesced apply of {} events failed ({}). Applying them one by one.",
+                    taxNumber, events.size(), e.getMessage());
+            return KeyProcessor.super.processGroup(taxNumber, state, records);
+        }
 
-            // If already retrying, block this key until retry resolves
-            if (isRetrying) {
-                log.info(
-                        "[Batch-Key:{}] Dependent event ({}). Waiting for previous retry...",
-                        taxNumber,
-                        event.getEventType()
-                );
-
-                try {
-                    RetryLatch.RetryStatus status =
-                            retryLatch.waitForResult(taxNumber, 60);
-
-                    if (status == RetryLatch.RetryStatus.SUCCESS) {
-                        log.info(
-                                "[Batch-Key:{}] Dependency resolved. Resuming.",
-                                taxNumber
-                        );
-                        isRetrying = false;
-                    } else {
-                        log.error(
-                                "[Batch-Key:{}] Dependency failed/timed-out. Sending {} to DLT.",
-                                taxNumber,
-                                event.getEventType()
-                        );
-                        kafkaTemplate.send("person.kafka.dlt", taxNumber, event);
-                        isRetrying = false;
-                    }
-                } catch (Exception e) {
-                    log.error(
-                            "[Batch-Key:{}] Redis error. Failing batch.",
-                            taxNumber,
-                            e
-                    );
-                    throw new RuntimeException(e);
-                }
-            }
+        events.forEach(event -> operationTracker.markApplied(event.getEventId()));
+        log.info("[Batch-Key:{}] Applied {} events as one {}", taxNumber, events.size(),
+                applied != null ? applied : "no-op");
+        return CompletableFuture.completedFuture(null);
+    }
 
-            // Attempt processing
-            try {
-                processEvent(event);
-            } catch (Exception e) {
-                boolean isSentToRetry = handleBatchError(record, e);
-                if (isSentToRetry) {
-                    isRetrying = true;
-                } else {
-                    if (event.getEventType() == PersonEvent.EventType.CREATE) {
-                        log.error("[BATCH-Key:{}] Fatal CREATE error. Breaking chain.", taxNumber);
-                        isCriticalFailed = true;
-                    }
+    private void attempt(KeyState state, ConsumerRecord<String, PersonEvent> record) {
+        PersonEvent event = record.value();
+        try {
+            processEvent(event);
+            operationTracker.markApplied(event.getEventId());
+        } catch (Exception e) {
+            boolean isSentToRetry = handleBatchError(record, e);
+            if (isSentToRetry) {
+                state.retrying = true;
+            } else {
+                if (event.getEventType() == PersonEvent.EventType.CREATE) {
+                    log.error("[BATCH-Key:{}] Fatal CREATE error. Breaking chain.", record.key());
+                    state.criticalFailed = true;
                 }
             }
         }
@@ -167,6 +207,7 @@ public class PersonBatchConsumer {
         if (type == ErrorClassifier.ErrorType.FATAL) {
             log.error("[Batch] Fatal error for {}. Sending to DLT.", taxNumber);
             kafkaTemplate.send("person.kafka.dlt", taxNumber, event);
+            operationTracker.markFailed(event.getEventId());
             return false;
         } else {
             log.info("[Batch] Retryable error for {}. Sending to retry-1.", taxNumber);
@@ -178,15 +219,24 @@ public class PersonBatchConsumer {
                     .add("retry-count", "1".getBytes());
 
             kafkaTemplate.send(retryRecord);
+            operationTracker.markRetrying(event.getEventId());
             return true;
         }
     }
 
     private void processEvent(PersonEvent event) {
-        switch (event.getEventType()) {
-            case CREATE -> personService.createPersonFromEvent(event.getPerson());
-            case UPDATE -> personService.updatePersonFromEvent(event.getPerson());
-            case DELETE -> personService.deletePersonFromEvent(event.getPerson());
-        }
+        bulkheads.database().run(() -> {
+            switch (event.getEventType()) {
+                case CREATE -> personService.createPersonFromEvent(event);
+                case UPDATE -> personService.updatePersonFromEvent(event);
+                case DELETE -> personService.deletePersonFromEvent(event);
+                case PATCH -> personService.patchPersonFromEvent(event);
+            }
+        });
+    }
+
+    static final class KeyState {
+        private boolean retrying;
+        private boolean criticalFailed;
     }
-}
\ No newline at end of file
+}
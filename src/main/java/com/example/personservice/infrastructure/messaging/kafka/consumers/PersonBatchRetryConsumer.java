@@ -1,72 +1,105 @@
 package com.example.personservice.infrastructure.messaging.kafka.consumers;
 
 import com.example.personservice.application.service.PersonService;
+import com.example.personservice.infrastructure.concurrency.Bulkheads;
 import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import com.example.personservice.infrastructure.messaging.kafka.engine.KeyParallelEngine;
+import com.example.personservice.infrastructure.messaging.kafka.engine.KeyParallelEngines;
+import com.example.personservice.infrastructure.messaging.kafka.engine.KeyProcessor;
+import com.example.personservice.infrastructure.messaging.kafka.retry.DelayedDelivery;
 import com.example.personservice.infrastructure.messaging.kafka.retry.RetryRouter;
 import com.example.personservice.infrastructure.messaging.redis.RetryLatch;
-import lombok.RequiredArgsConstructor;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Works through the retry topics with a {@link KeyParallelEngine}: retries of different tax numbers run in
+ * parallel, and a partition whose head is not due yet is held back by the engine. Database work goes through
+ * the database {@link Bulkheads bulkhead}, like the batch consumer's, so a burst of retries cannot take every
+ * connection.
+ */
 @Component
 @Slf4j
-@RequiredArgsConstructor
-public class PersonBatchRetryConsumer {
+public class PersonBatchRetryConsumer implements KeyProcessor<Void, PersonEvent> {
 
     private final PersonService service;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
     private final RetryLatch retryLatch;
     private final RetryRouter router;
+    private final OperationTracker operationTracker;
+    private final Bulkheads bulkheads;
+    private final KeyParallelEngine<Void, PersonEvent> engine;
 
     private static final int MAX_RETRIES = 3;
 
+    public PersonBatchRetryConsumer(
+            PersonService service,
+            RetryLatch retryLatch,
+            RetryRouter router,
+            OperationTracker operationTracker,
+            Bulkheads bulkheads,
+            KeyParallelEngines engines
+    ) {
+        this.service = service;
+        this.retryLatch = retryLatch;
+        this.router = router;
+        this.operationTracker = operationTracker;
+        this.bulkheads = bulkheads;
+        this.engine = engines.create("person-batch-retry", this, DelayedDelivery::dueAt);
+    }
+
     @KafkaListener(
             topics = {"person.kafka.retry-1", "person.kafka.retry-2", "person.kafka.retry-3"},
             groupId = "person.retry.group",
             containerFactory = "personBatchContainerFactory"
     )
     public void consumeRetry(List<ConsumerRecord<String, PersonEvent>> records,
-                             Acknowledgment acknowledgment) {
+                             Consumer<?, ?> consumer) {
 
         log.info("[RetryWorker][Batch] Received batch of size: {}", records.size());
+        engine.accept(records, consumer);
+    }
 
-        for (ConsumerRecord<String, PersonEvent> record : records) {
-            String taxNumber = record.key();
-            PersonEvent event = record.value();
+    @Override
+    public Void open(String taxNumber) {
+        return null;
+    }
 
-            // 1. Extract retry-count from the individual record's header
-            int retryCount = extractRetryCount(record, taxNumber);
+    @Override
+    public CompletionStage<Void> process(String taxNumber, Void state, ConsumerRecord<String, PersonEvent> record) {
+        PersonEvent event = record.value();
 
-            log.info("[RetryWorker] Processing {} from topic {} (Attempt {})",
-                    taxNumber, record.topic(), retryCount);
+        // 1. Extract retry-count from the individual record's header
+        int retryCount = extractRetryCount(record, taxNumber);
 
-            try {
-                // 2. Process each event individually
-                processEvent(event);
+        log.info("[RetryWorker] Processing {} from topic {} (Attempt {})",
+                taxNumber, record.topic(), retryCount);
 
-                // On success, notify the original consumer via Redis
-                log.info("[RetryWorker] Success for {}. Notifying Batch Consumer.", taxNumber);
-                retryLatch.notifyResult(taxNumber, RetryLatch.RetryStatus.SUCCESS);
+        try {
+            // 2. Process each event individually
+            processEvent(event);
+            operationTracker.markApplied(event.getEventId());
 
-            } catch (Exception e) {
-                log.error("[RetryWorker] Failed attempt {} for {}: {}", retryCount, taxNumber, e.getMessage());
+            // On success, notify the original consumer via Redis
+            log.info("[RetryWorker] Success for {}. Notifying Batch Consumer.", taxNumber);
+            retryLatch.notifyResult(taxNumber, RetryLatch.RetryStatus.SUCCESS);
 
-                // 3. On failure, decide whether to retry again or send to DLT
-                handleRetryFailure(event, taxNumber, retryCount);
-            }
-        }
+        } catch (Exception e) {
+            log.error("[RetryWorker] Failed attempt {} for {}: {}", retryCount, taxNumber, e.getMessage());
 
-        // 4. Acknowledge the entire batch after processing all records
-        acknowledgment.acknowledge();
-        log.info("[RetryWorker][Batch] Acknowledged batch of {} records.", records.size());
+            // 3. On failure, decide whether to retry again or send to DLT
+            handleRetryFailure(event, taxNumber, retryCount);
+        }
+        return CompletableFuture.completedFuture(null);
     }
 
     private int extractRetryCount(ConsumerRecord<String, PersonEvent> record, String taxNumber) {
@@ -90,18 +123,23 @@ public class PersonBatchRetryConsumer {
         if (retryCount >= MAX_RETRIES) {
             log.warn("[RetryWorker] Max retries ({}) reached for {}. Sending to DLT.", MAX_RETRIES, taxNumber);
             router.sendToDlt(event, taxNumber);
+            operationTracker.markFailed(event.getEventId());
             retryLatch.notifyResult(taxNumber, RetryLatch.RetryStatus.DLT);
         } else {
             log.info("[RetryWorker] Routing {} to next retry topic for attempt #{}.", taxNumber, retryCount + 1);
             router.routeToNextTopic(event, taxNumber, retryCount);
+            operationTracker.markRetrying(event.getEventId());
         }
     }
 
     private void processEvent(PersonEvent event) {
-        switch (event.getEventType()) {
-            case CREATE -> service.createPersonFromEvent(event.getPerson());
-            case UPDATE -> service.updatePersonFromEvent(event.getPerson());
-            case DELETE -> service.deletePersonFromEvent(event.getPerson());
-        }
+        bulkheads.database().run(() -> {
+            switch (event.getEventType()) {
+                case CREATE -> service.createPersonFromEvent(event);
+                case UPDATE -> service.updatePersonFromEvent(event);
+                case DELETE -> service.deletePersonFromEvent(event);
+                case PATCH -> service.patchPersonFromEvent(event);
+            }
+        });
     }
 }
@@ -0,0 +1,102 @@
+package com.example.personservice.infrastructure.messaging.kafka.consumers;
+
+import com.example.personservice.application.service.PersonService;
+import com.example.personservice.domain.model.Person;
+import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds chains of person events for one tax number into their net effect, so a batch applies each chain
+ * with one write instead of one per event.
+ * <p>
+ * A chain starts at any event and takes the UPDATEs and at most one DELETE that follow it. The net effect
+ * keeps the CREATE data, the latest UPDATE data and the DELETE apart, since which of them takes effect
+ * depends on whether the person exists (see {@code PersonService#applyCoalescedEvents}). An UPDATE that
+ * occurred before the data already folded in is stale and dropped. Events that simulate a failure (see
+ * {@code PersonService#isSimulatedFailure}) are never folded, so they still fail alone and block the events
+ * after them.
+ */
+final class PersonEventCoalescer {
+
+    /**
+     * Net effect of a chain: the data of its CREATE, of its latest UPDATE and the person of its DELETE, each
+     * {@code null} when the chain has none.
+     */
+    record NetEffect(Person create, Person update, Person delete) {
+    }
+
+    private PersonEventCoalescer() {
+    }
+
+    static List<List<ConsumerRecord<String, PersonEvent>>> group(List<ConsumerRecord<String, PersonEvent>> records) {
+        List<List<ConsumerRecord<String, PersonEvent>>> groups = new ArrayList<>();
+        List<ConsumerRecord<String, PersonEvent>> current = null;
+        for (ConsumerRecord<String, PersonEvent> record : records) {
+            PersonEvent event = record.value();
+            if (!isFoldable(event)) {
+                groups.add(List.of(record));
+                current = null;
+                continue;
+            }
+            if (current != null && continuesChain(current, event)) {
+                current.add(record);
+                continue;
+            }
+            current = new ArrayList<>();
+            current.add(record);
+            groups.add(current);
+        }
+        return groups;
+    }
+
+    static NetEffect fold(List<PersonEvent> chain) {
+        PersonEvent head = chain.get(0);
+        Person create = head.getEventType() == PersonEvent.EventType.CREATE ? copyOf(head.getPerson()) : null;
+        Person update = null;
+        LocalDateTime latest = null;
+
+        for (PersonEvent event : chain) {
+            switch (event.getEventType()) {
+                case CREATE -> latest = event.getOccurredOn();
+                case DELETE -> {
+                    return new NetEffect(create, update, event.getPerson());
+                }
+                default -> {
+                    if (latest != null && event.getOccurredOn() != null && event.getOccurredOn().isBefore(latest)) {
+                        continue;
+                    }
+                    update = copyOf(event.getPerson());
+                    latest = event.getOccurredOn() != null ? event.getOccurredOn() : latest;
+                }
+            }
+        }
+        return new NetEffect(create, update, null);
+    }
+
+    private static boolean continuesChain(List<ConsumerRecord<String, PersonEvent>> chain, PersonEvent next) {
+        PersonEvent.EventType last = chain.get(chain.size() - 1).value().getEventType();
+        return last != PersonEvent.EventType.DELETE && next.getEventType() != PersonEvent.EventType.CREATE;
+    }
+
+    private static boolean isFoldable(PersonEvent event) {
+        return event != null
+                && event.getEventType() != null
+                && event.getEventType() != PersonEvent.EventType.PATCH
+                && event.getPerson() != null
+                && !PersonService.isSimulatedFailure(event);
+    }
+
+    private static Person copyOf(Person data) {
+        Person person = new Person();
+        person.setId(data.getId());
+        person.setFirstName(data.getFirstName());
+        person.setLastName(data.getLastName());
+        person.setDateOfBirth(data.getDateOfBirth());
+        person.setTaxNumber(data.getTaxNumber());
+        return person;
+    }
+}
@@ -5,8 +5,12 @@ import com.example.personservice.domain.model.Person;
 import com.example.personservice.infrastructure.exception.KafkaConsumerException;
 import com.example.personservice.infrastructure.repository.PersonRepository;
 import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import com.example.personservice.infrastructure.messaging.kafka.retry.DelayedDelivery;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.RecoverableDataAccessException;
 import org.springframework.dao.TransientDataAccessException;
@@ -35,6 +39,8 @@ import java.util.UUID;
 public class PersonEventConsumer {
 
     private final PersonService service;
+    private final OperationTracker operationTracker;
+    private final DelayedDelivery delayedDelivery;
 
     // for single, non-blocking retry
 //    @RetryableTopic(
@@ -55,7 +61,7 @@ public class PersonEventConsumer {
 //            dltStrategy = DltStrategy.FAIL_ON_ERROR
 //    )
     @KafkaListener(
-            topics = {"person.kafka", "person.kafka-retry"},
+            topics = "person.kafka",
             groupId = "person.crud.group",
             containerFactory = "personKafkaListenerContainerFactory"
     )
@@ -67,17 +73,39 @@ public class PersonEventConsumer {
             @Header(KafkaHeaders.OFFSET) long offset,
             Acknowledgment acknowledgment
     ) {
+        handle(event, topic, partition, offset, acknowledgment);
+    }
 
+    // own container: a retry held back until it is due only pauses its retry partition, never person.kafka
+    @KafkaListener(
+            topics = {"person.kafka-retry-1", "person.kafka-retry-2", "person.kafka-retry-3"},
+            groupId = "person.crud.retry.group",
+            containerFactory = "personKafkaListenerContainerFactory"
+    )
+    @Transactional
+    public void handlePersonRetryEvent(
+            ConsumerRecord<String, PersonEvent> record,
+            Consumer<?, ?> consumer,
+            Acknowledgment acknowledgment
+    ) {
+        if (delayedDelivery.deferIfNotDue(record, consumer)) {
+            return;
+        }
+        handle(record.value(), record.topic(), record.partition(), record.offset(), acknowledgment);
+    }
+
+    private void handle(PersonEvent event, String topic, int partition, long offset, Acknowledgment acknowledgment) {
         log.info("Received PersonEvent from topic: {}, partition: {}, offset: {}",
                 topic, partition, offset);
 
-        if (event == null || event.getPerson() == null) {
+        if (event == null || (event.getPerson() == null && event.getDelta() == null)) {
             log.error("Received null event or null person data");
             throw new IllegalArgumentException("Invalid event data received");
         }
 
         try {
             processEvent(event);
+            operationTracker.markApplied(event.getEventId());
             acknowledgment.acknowledge();
             log.info("Successfully processed and acknowledged PersonEvent: {}", event.getEventType());
         } catch (Exception e) {
@@ -92,15 +120,19 @@ public class PersonEventConsumer {
         switch (event.getEventType()) {
             case CREATE -> {
                 log.info("Processing CREATE event for person: {}", person);
-                service.createPersonFromEvent(person);
+                service.createPersonFromEvent(event);
             }
             case UPDATE -> {
                 log.info("Processing UPDATE event for person: {}", person);
-                service.updatePersonFromEvent(person);
+                service.updatePersonFromEvent(event);
             }
             case DELETE -> {
                 log.info("Processing DELETE event for person ID: {}", person.getId());
-                service.deletePersonFromEvent(person);
+                service.deletePersonFromEvent(event);
+            }
+            case PATCH -> {
+                log.info("Processing PATCH event for person ID: {}", event.getDelta().getId());
+                service.patchPersonFromEvent(event);
             }
             default -> {
                 log.warn("Unknown event type: {}", event.getEventType());
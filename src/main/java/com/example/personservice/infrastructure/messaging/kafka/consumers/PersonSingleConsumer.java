@@ -3,6 +3,7 @@ package com.example.personservice.infrastructure.messaging.kafka.consumers;
 import com.example.personservice.application.service.PersonService;
 import com.example.personservice.infrastructure.messaging.events.PersonEvent;
 import com.example.personservice.infrastructure.messaging.kafka.retry.ErrorClassifier;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -18,6 +19,7 @@ public class PersonSingleConsumer {
     private final PersonService personService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ErrorClassifier errorClassifier;
+    private final OperationTracker operationTracker;
 
     @KafkaListener(
             topics = "person.kafka.single",
@@ -28,6 +30,7 @@ public class PersonSingleConsumer {
         try {
             log.info("[Single] Processing event: {}", event.getEventType());
             processEvent(event);
+            operationTracker.markApplied(event.getEventId());
             ack.acknowledge();
         } catch (Exception e) {
             handleError(event, e);
@@ -39,19 +42,22 @@ public class PersonSingleConsumer {
         ErrorClassifier.ErrorType type = errorClassifier.classifyError(e);
         if (type == ErrorClassifier.ErrorType.FATAL) {
             log.error("[Single] Fatal error. Sending to DLT.");
-            kafkaTemplate.send("person.kafka.dlt", event.getPerson().getTaxNumber(), event);
+            operationTracker.markFailed(event.getEventId());
+            kafkaTemplate.send("person.kafka.dlt", event.getTaxNumber(), event);
         } else {
             log.info("[Single] Retryable error. Sending to Retry Topic.");
+            operationTracker.markRetrying(event.getEventId());
             // Send to shared retry topic
-            kafkaTemplate.send("person.kafka.retry", event.getPerson().getTaxNumber(), event);
+            kafkaTemplate.send("person.kafka.retry", event.getTaxNumber(), event);
         }
     }
 
     private void processEvent(PersonEvent event) {
         switch (event.getEventType()) {
-            case CREATE -> personService.createPersonFromEvent(event.getPerson());
-            case UPDATE -> personService.updatePersonFromEvent(event.getPerson());
-            case DELETE -> personService.deletePersonFromEvent(event.getPerson());
+            case CREATE -> personService.createPersonFromEvent(event);
+            case UPDATE -> personService.updatePersonFromEvent(event);
+            case DELETE -> personService.deletePersonFromEvent(event);
+            case PATCH -> personService.patchPersonFromEvent(event);
         }
     }
 }
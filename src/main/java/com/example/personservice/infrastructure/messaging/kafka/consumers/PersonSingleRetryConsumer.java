@@ -2,10 +2,13 @@ package com.example.personservice.infrastructure.messaging.kafka.consumers;
 
 import com.example.personservice.application.service.PersonService;
 import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import com.example.personservice.infrastructure.messaging.kafka.retry.DelayedDelivery;
 import com.example.personservice.infrastructure.messaging.kafka.retry.RetryRouter;
 import com.example.personservice.infrastructure.messaging.redis.RetryLatch;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -22,6 +25,8 @@ public class PersonSingleRetryConsumer {
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final RetryLatch retryLatch;
     private final RetryRouter router;
+    private final OperationTracker operationTracker;
+    private final DelayedDelivery delayedDelivery;
 
     private static final int MAX_RETRIES = 3;
 
@@ -32,8 +37,14 @@ public class PersonSingleRetryConsumer {
     )
     public void consumeRetry(ConsumerRecord<String, PersonEvent> record,
                              @Header(name = "retry-count", defaultValue = "1") String retryCountStr,
+                             Consumer<?, ?> consumer,
                              Acknowledgment acknowledgment) {
 
+        // each retry-N topic has one delay, so only this partition waits for its head
+        if (delayedDelivery.deferIfNotDue(record, consumer)) {
+            return;
+        }
+
         int retryCount = Integer.parseInt(retryCountStr);
         String taxNumber = record.key();
         PersonEvent event = record.value();
@@ -42,6 +53,7 @@ public class PersonSingleRetryConsumer {
 
         try {
             processEvent(event);
+            operationTracker.markApplied(event.getEventId());
 
             // SUCCESS
             log.info("[RetryWorker] Success for {}. Notifying Batch Consumer.", taxNumber);
@@ -56,9 +68,11 @@ public class PersonSingleRetryConsumer {
 
             if (retryCount >= 3) {
                 router.sendToDlt(event, taxNumber);
+                operationTracker.markFailed(event.getEventId());
                 retryLatch.notifyResult(taxNumber, RetryLatch.RetryStatus.DLT);
             } else {
                 router.routeToNextTopic(event, taxNumber, retryCount);
+                operationTracker.markRetrying(event.getEventId());
             }
         }
 
@@ -66,9 +80,10 @@ public class PersonSingleRetryConsumer {
 
     private void processEvent(PersonEvent event) {
         switch (event.getEventType()) {
-            case CREATE -> service.createPersonFromEvent(event.getPerson());
-            case UPDATE -> service.updatePersonFromEvent(event.getPerson());
-            case DELETE -> service.deletePersonFromEvent(event.getPerson());
+            case CREATE -> service.createPersonFromEvent(event);
+            case UPDATE -> service.updatePersonFromEvent(event);
+            case DELETE -> service.deletePersonFromEvent(event);
+            case PATCH -> service.patchPersonFromEvent(event);
         }
     }
 
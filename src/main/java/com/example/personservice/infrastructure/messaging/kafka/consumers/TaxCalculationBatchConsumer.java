@@ -3,11 +3,12 @@ package com.example.personservice.infrastructure.messaging.kafka.consumers;
 import com.example.personservice.application.service.TaxService;
 import com.example.personservice.infrastructure.exception.PersonNotFoundException;
 import com.example.personservice.infrastructure.messaging.events.TaxCalculationEvent;
+import com.example.personservice.infrastructure.messaging.redis.EventIdempotencyStore;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import com.example.personservice.infrastructure.repository.PersonRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.Acknowledgment;
@@ -17,8 +18,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
@@ -28,13 +29,12 @@ public class TaxCalculationBatchConsumer {
     private final TaxService taxService;
     private final PersonRepository personRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final RedisTemplate<String, String> redisTemplate;
+    private final EventIdempotencyStore eventIdempotencyStore;
+    private final OperationTracker operationTracker;
 
     private static final String TAX_BATCH_TOPIC = "tax.kafka.batch";
     private static final String TAX_RETRY_TOPIC_1 = "tax.kafka.batch.retry-1";
     private static final String TAX_DLT_TOPIC = "tax.kafka.batch.dlt";
-    private static final String PROCESSED_KEY_PREFIX = "tax:processed:";
-    private static final int PROCESSED_TTL_HOURS = 24;
 
     @KafkaListener(
             topics = TAX_BATCH_TOPIC,
@@ -48,14 +48,16 @@ public class TaxCalculationBatchConsumer {
             // 1. PREPARE DATA
             // We filter duplicates BEFORE starting the DB transaction
             List<TaxCalculationEvent> eventsToProcess = new ArrayList<>();
+            Set<UUID> processed = eventIdempotencyStore.findProcessed(
+                    records.stream().map(ConsumerRecord::value).toList());
 
             for (ConsumerRecord<String, TaxCalculationEvent> record : records) {
                 TaxCalculationEvent event = record.value();
                 UUID eventId = event.getEventId();
-                String processedKey = "tax:processed:" + eventId;
 
-                if (Boolean.TRUE.equals(redisTemplate.hasKey(processedKey))) {
+                if (processed.contains(eventId)) {
                     log.info("[Tax Batch] Skipping duplicate event {}", eventId);
+                    operationTracker.markApplied(eventId);
                     continue;
                 }
                 eventsToProcess.add(event);
@@ -68,9 +70,9 @@ public class TaxCalculationBatchConsumer {
                 taxService.processBatch(eventsToProcess);
 
                 // 3. UPDATE REDIS (Only if DB success)
+                eventIdempotencyStore.markProcessed(eventsToProcess);
                 for (TaxCalculationEvent event : eventsToProcess) {
-                    String processedKey = "tax:processed:" + event.getEventId();
-                    redisTemplate.opsForValue().set(processedKey, "processed", 24, TimeUnit.HOURS);
+                    operationTracker.markApplied(event.getEventId());
                 }
             }
 
@@ -84,6 +86,7 @@ public class TaxCalculationBatchConsumer {
             // 5. SEND TO RETRY
             records.forEach(record -> {
                 kafkaTemplate.send("tax.kafka.batch.retry-1", record.key(), record.value());
+                operationTracker.markRetrying(record.value().getEventId());
             });
 
             // 6. ACKNOWLEDGE MAIN TOPIC
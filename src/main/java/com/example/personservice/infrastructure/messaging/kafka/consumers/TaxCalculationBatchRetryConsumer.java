@@ -3,11 +3,12 @@ package com.example.personservice.infrastructure.messaging.kafka.consumers;
 import com.example.personservice.application.service.TaxService;
 import com.example.personservice.infrastructure.exception.PersonNotFoundException;
 import com.example.personservice.infrastructure.messaging.events.TaxCalculationEvent;
+import com.example.personservice.infrastructure.messaging.redis.EventIdempotencyStore;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import com.example.personservice.infrastructure.repository.PersonRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.Acknowledgment;
@@ -15,8 +16,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -26,13 +29,12 @@ public class TaxCalculationBatchRetryConsumer {
     private final TaxService taxService;
     private final PersonRepository personRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final RedisTemplate<String, String> redisTemplate;
+    private final EventIdempotencyStore eventIdempotencyStore;
+    private final OperationTracker operationTracker;
 
     private static final String TAX_RETRY_TOPIC_1 = "tax.kafka.batch.retry-1";
     private static final String TAX_RETRY_TOPIC_2 = "tax.kafka.batch.retry-2";
     private static final String TAX_DLT_TOPIC = "tax.kafka.batch.dlt";
-    private static final String PROCESSED_KEY_PREFIX = "tax:processed:";
-    private static final int PROCESSED_TTL_SECONDS = 60;
 
     // --- RETRY LEVEL 1 ---
     @KafkaListener(
@@ -64,21 +66,25 @@ public class TaxCalculationBatchRetryConsumer {
                                        String nextTopic,
                                        String nextTopicName,
                                        int retryLevel) {
+        // applied records are marked even if a later one fails, as the whole batch is forwarded then
+        List<TaxCalculationEvent> applied = new ArrayList<>();
         try {
             log.info("[Tax Retry-{}] Attempting to process batch of {} records", retryLevel, records.size());
+            Set<UUID> processed = eventIdempotencyStore.findProcessed(
+                    records.stream().map(ConsumerRecord::value).toList());
 
             // Process the batch with validation and idempotency
             for (ConsumerRecord<String, TaxCalculationEvent> record : records) {
                 TaxCalculationEvent event = record.value();
                 String taxNumber = event.getTaxId();
-                String processedKey = PROCESSED_KEY_PREFIX + taxNumber + ":" + event.getAmount();
 
                 log.info("[Tax Retry-{}] Processing taxNumber: {}, amount: {}",
                         retryLevel, taxNumber, event.getAmount());
 
                 // Check if already processed (idempotency)
-                if (isAlreadyProcessed(processedKey)) {
+                if (processed.contains(event.getEventId())) {
                     log.info("[Tax Retry-{}] Tax calculation for {} already processed. Skipping.", retryLevel, taxNumber);
+                    operationTracker.markApplied(event.getEventId());
                     continue;
                 }
 
@@ -89,12 +95,14 @@ public class TaxCalculationBatchRetryConsumer {
                     log.error("[Tax Retry-{}] Invalid event data for {}: {}. Sending to DLT.",
                             retryLevel, taxNumber, e.getMessage());
                     kafkaTemplate.send(TAX_DLT_TOPIC, record.key(), record.value());
+                    operationTracker.markFailed(event.getEventId());
                     continue; // Skip this record, continue with others
                 }
 
                 validatePersonExists(taxNumber);
                 processTaxCalculation(event);
-                markAsProcessed(processedKey);
+                applied.add(event);
+                operationTracker.markApplied(event.getEventId());
             }
 
             ack.acknowledge();
@@ -109,6 +117,7 @@ public class TaxCalculationBatchRetryConsumer {
 
                 records.forEach(record -> {
                     kafkaTemplate.send(TAX_DLT_TOPIC, record.key(), record.value());
+                    operationTracker.markFailed(record.value().getEventId());
                     log.debug("[Tax Retry-{}] Sent record {} to DLT", retryLevel, record.key());
                 });
             } else {
@@ -117,6 +126,7 @@ public class TaxCalculationBatchRetryConsumer {
 
                 records.forEach(record -> {
                     kafkaTemplate.send(nextTopic, record.key(), record.value());
+                    operationTracker.markRetrying(record.value().getEventId());
                     log.debug("[Tax Retry-{}] Forwarded record {} to {}", retryLevel, record.key(), nextTopicName);
                 });
             }
@@ -124,17 +134,12 @@ public class TaxCalculationBatchRetryConsumer {
             ack.acknowledge();
             log.info("[Tax Retry-{}] Acknowledged batch. Records moved to {}", retryLevel, nextTopicName);
 
+        } finally {
+            // after commit of the listener transaction
+            eventIdempotencyStore.markProcessed(applied);
         }
     }
 
-    private boolean isAlreadyProcessed(String processedKey) {
-        return Boolean.TRUE.equals(redisTemplate.hasKey(processedKey));
-    }
-
-    private void markAsProcessed(String processedKey) {
-        redisTemplate.opsForValue().set(processedKey, "processed", PROCESSED_TTL_SECONDS, TimeUnit.SECONDS);
-    }
-
     private void validateTaxEvent(TaxCalculationEvent event) {
         if (event.getTaxId() == null || event.getTaxId().trim().isEmpty()) {
             throw new IllegalArgumentException("Tax ID cannot be null or empty");
@@ -145,6 +150,7 @@ public class TaxCalculationBatchRetryConsumer {
     }
 
     private void validatePersonExists(String taxNumber) {
+        // not the tax number index: a missed broadcast would send real debt to the DLT
         if (!personRepository.existsByTaxNumber(taxNumber)) {
             log.warn("[Tax Retry] Person with taxNumber {} does not exist in database", taxNumber);
             throw new PersonNotFoundException("Person with tax number " + taxNumber + " not found");
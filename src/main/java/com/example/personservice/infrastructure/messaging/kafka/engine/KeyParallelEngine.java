@@ -0,0 +1,431 @@
+package com.example.personservice.infrastructure.messaging.kafka.engine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+/**
+ * Processes the records of a batch listener in parallel across keys and in order within a key, without a
+ * barrier between polls.
+ * <p>
+ * Every key has a lane: a queue drained by at most one worker at a time. A key whose processor returns an
+ * incomplete stage is parked, holding no thread, and later records for it wait in its lane while other keys
+ * keep flowing. The records of a key from one poll may be folded into groups by {@link KeyProcessor#coalesce};
+ * a group is queued and completed as one entry. Offsets are committed per partition up to the first record that is not finished yet (the
+ * watermark), so a parked key only holds back its own partition's commits, never the next poll.
+ * <p>
+ * All interaction with the Kafka consumer (commits, seeks, pause and resume) happens on the consumer thread:
+ * from {@link #accept} for every poll and from {@link #maintain} on container idle events. A partition is
+ * paused while its parked records take more than the configured memory, or while its head record is not due
+ * yet when the engine is given a due-time function (delayed retries).
+ * <p>
+ * A parked key resumes from whatever thread completes its stage, such as a timer or a Redis pub/sub thread,
+ * so its work is never run inline there: when the executor rejects a lane, the lane waits until the consumer
+ * thread hands it to the executor again on the next {@link #accept} or {@link #maintain}.
+ */
+@Slf4j
+public class KeyParallelEngine<S, V> {
+    private final String name;
+    private final KeyProcessor<S, V> processor;
+    private final Executor executor;
+    private final ToLongFunction<ConsumerRecord<?, ?>> dueAt;
+    private final long maxParkedBytes;
+
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicLong parkedBytes = new AtomicLong();
+    // lanes the executor rejected; restarted from the consumer thread
+    private final Queue<Lane> rejected = new ConcurrentLinkedQueue<>();
+
+    KeyParallelEngine(
+            String name,
+            KeyProcessor<S, V> processor,
+            Executor executor,
+            ToLongFunction<ConsumerRecord<?, ?>> dueAt,
+            long maxParkedBytes,
+            MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.processor = processor;
+        this.executor = executor;
+        this.dueAt = dueAt;
+        this.maxParkedBytes = maxParkedBytes;
+
+        meterRegistry.gauge("key-parallel.parked.bytes", Tags.of("engine", name), parkedBytes, AtomicLong::get);
+        meterRegistry.gauge("key-parallel.lanes", Tags.of("engine", name), lanes, Map::size);
+    }
+
+    /**
+     * Hands a polled batch to the lanes. Must be called on the consumer thread, i.e. from the listener.
+     */
+    public void accept(List<ConsumerRecord<String, V>> records, Consumer<?, ?> consumer) {
+        // records of a partition rewound just now were fetched before the seek and come again
+        Set<TopicPartition> skipped = commitAndRewind(consumer);
+        restartRejected();
+
+        long now = System.currentTimeMillis();
+        Map<String, List<ConsumerRecord<String, V>>> byKey = new LinkedHashMap<>();
+        Map<String, PartitionState> partitionByKey = new HashMap<>();
+        for (ConsumerRecord<String, V> record : records) {
+            TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+            if (skipped.contains(tp)) {
+                continue;
+            }
+            PartitionState partition = partitions.computeIfAbsent(tp, PartitionState::new);
+            if (partition.failed) {
+                // the rewind in maintain() redelivers everything from the watermark
+                continue;
+            }
+
+            long due = dueAt.applyAsLong(record);
+            if (due > now) {
+                // this and the later records of the partition come back once the head is due
+                consumer.seek(tp, record.offset());
+                partition.dueAt = due;
+                skipped.add(tp);
+                continue;
+            }
+
+            partition.track(record);
+            byKey.computeIfAbsent(record.key(), k -> new ArrayList<>()).add(record);
+            partitionByKey.put(record.key(), partition);
+        }
+
+        byKey.forEach((key, keyRecords) -> {
+            for (List<ConsumerRecord<String, V>> group : processor.coalesce(key, keyRecords)) {
+                submit(new Entry(key, group, partitionByKey.get(key)));
+            }
+        });
+
+        updatePauses(consumer);
+    }
+
+    /**
+     * Commits watermarks, rewinds failed partitions and re-evaluates pauses. Must be called on the consumer
+     * thread; the engines call it on container idle events so this also happens while no records arrive.
+     */
+    public void maintain(Consumer<?, ?> consumer) {
+        commitAndRewind(consumer);
+        restartRejected();
+        updatePauses(consumer);
+    }
+
+    private Set<TopicPartition> commitAndRewind(Consumer<?, ?> consumer) {
+        Set<TopicPartition> rewound = new HashSet<>();
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        for (TopicPartition tp : consumer.assignment()) {
+            PartitionState partition = partitions.get(tp);
+            if (partition == null) {
+                continue;
+            }
+
+            long watermark = partition.watermark();
+            if (watermark > partition.committed) {
+                commits.put(tp, new OffsetAndMetadata(watermark));
+                partition.committed = watermark;
+            }
+
+            if (partition.failed && watermark >= 0) {
+                log.warn("[{}] Rewinding {} to offset {} after a processing failure", name, tp, watermark);
+                partition.stale = true;
+                PartitionState fresh = new PartitionState(tp);
+                fresh.committed = partition.committed;
+                partitions.put(tp, fresh);
+                consumer.seek(tp, watermark);
+                rewound.add(tp);
+            }
+        }
+
+        if (!commits.isEmpty()) {
+            consumer.commitAsync(commits, (offsets, ex) -> {
+                if (ex != null) {
+                    log.warn("[{}] Offset commit failed for {}: {}", name, offsets.keySet(), ex.getMessage());
+                }
+            });
+        }
+        return rewound;
+    }
+
+    /**
+     * Commits what is finished for revoked partitions and drops their state; records still queued for them
+     * are skipped and will be redelivered to the new owner.
+     */
+    public void onRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        for (TopicPartition tp : revoked) {
+            PartitionState partition = partitions.remove(tp);
+            if (partition == null) {
+                continue;
+            }
+            partition.stale = true;
+            long watermark = partition.watermark();
+            if (watermark > partition.committed) {
+                commits.put(tp, new OffsetAndMetadata(watermark));
+            }
+        }
+        if (!commits.isEmpty()) {
+            try {
+                consumer.commitSync(commits);
+            } catch (RuntimeException ex) {
+                log.warn("[{}] Final commit for revoked partitions {} failed: {}", name, commits.keySet(), ex.getMessage());
+            }
+        }
+    }
+
+    public void onLost(Collection<TopicPartition> lost) {
+        for (TopicPartition tp : lost) {
+            PartitionState partition = partitions.remove(tp);
+            if (partition != null) {
+                partition.stale = true;
+            }
+        }
+    }
+
+    private void updatePauses(Consumer<?, ?> consumer) {
+        long now = System.currentTimeMillis();
+        Set<TopicPartition> paused = consumer.paused();
+        Set<TopicPartition> toPause = new HashSet<>();
+        Set<TopicPartition> toResume = new HashSet<>();
+
+        for (TopicPartition tp : consumer.assignment()) {
+            PartitionState partition = partitions.get(tp);
+            if (partition == null) {
+                continue;
+            }
+            long bytes = partition.parkedBytes.get();
+            if (bytes > maxParkedBytes) {
+                partition.memoryPaused = true;
+            } else if (bytes <= maxParkedBytes / 2) {
+                partition.memoryPaused = false;
+            }
+            boolean pause = partition.memoryPaused || partition.dueAt > now;
+
+            if (pause && !paused.contains(tp)) {
+                toPause.add(tp);
+            } else if (!pause && paused.contains(tp)) {
+                toResume.add(tp);
+            }
+        }
+
+        if (!toPause.isEmpty()) {
+            log.debug("[{}] Pausing {}", name, toPause);
+            consumer.pause(toPause);
+        }
+        if (!toResume.isEmpty()) {
+            log.debug("[{}] Resuming {}", name, toResume);
+            consumer.resume(toResume);
+        }
+    }
+
+    private void submit(Entry entry) {
+        String key = entry.key;
+        boolean[] start = new boolean[1];
+        Lane lane = lanes.compute(key, (k, current) -> {
+            Lane target = current != null ? current : new Lane(k);
+            target.queue.add(entry);
+            if (!target.running) {
+                target.running = true;
+                start[0] = true;
+            }
+            return target;
+        });
+        if (start[0]) {
+            start(lane);
+        }
+    }
+
+    private void start(Lane lane) {
+        try {
+            executor.execute(() -> drain(lane));
+        } catch (RejectedExecutionException ex) {
+            // the lane stays marked as running, so nothing else starts it meanwhile
+            rejected.add(lane);
+        }
+    }
+
+    private void restartRejected() {
+        // one pass only; lanes rejected again wait for the next call
+        for (int i = rejected.size(); i > 0; i--) {
+            Lane lane = rejected.poll();
+            if (lane == null) {
+                return;
+            }
+            start(lane);
+        }
+    }
+
+    private void drain(Lane lane) {
+        Entry entry;
+        while ((entry = next(lane)) != null) {
+            if (entry.partition.isSkipped()) {
+                entry.release(false);
+                continue;
+            }
+
+            CompletableFuture<Void> result;
+            try {
+                if (!lane.opened) {
+                    lane.state = processor.open(lane.key);
+                    lane.opened = true;
+                }
+                result = (entry.records.size() == 1
+                        ? processor.process(lane.key, lane.state, entry.records.get(0))
+                        : processor.processGroup(lane.key, lane.state, entry.records)).toCompletableFuture();
+            } catch (RuntimeException ex) {
+                result = CompletableFuture.failedFuture(ex);
+            }
+
+            if (!result.isDone()) {
+                // parked: the lane resumes on a worker once the stage completes
+                Entry parked = entry;
+                result.whenComplete((ignored, ex) -> {
+                    finish(parked, ex);
+                    start(lane);
+                });
+                return;
+            }
+            finish(entry, result.isCompletedExceptionally() ? exceptionOf(result) : null);
+        }
+    }
+
+    private Entry next(Lane lane) {
+        AtomicReference<Entry> next = new AtomicReference<>();
+        lanes.compute(lane.key, (k, current) -> {
+            next.set(lane.queue.poll());
+            if (next.get() == null) {
+                lane.running = false;
+                return null;
+            }
+            return current;
+        });
+        return next.get();
+    }
+
+    private void finish(Entry entry, Throwable failure) {
+        if (failure == null) {
+            entry.release(true);
+            return;
+        }
+        ConsumerRecord<String, V> first = entry.records.get(0);
+        log.error("[{}] Processing failed for key {} at {}-{}@{}; partition will be rewound",
+                name, entry.key, first.topic(), first.partition(), first.offset(), failure);
+        entry.partition.failed = true;
+        entry.release(false);
+    }
+
+    private static Throwable exceptionOf(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (RuntimeException ex) {
+            return ex.getCause() != null ? ex.getCause() : ex;
+        }
+    }
+
+    private final class Lane {
+        private final String key;
+        // guarded by the lanes map entry
+        private final Queue<Entry> queue = new ArrayDeque<>();
+        private boolean running;
+        // only touched by the single worker draining the lane
+        private boolean opened;
+        private S state;
+
+        private Lane(String key) {
+            this.key = key;
+        }
+    }
+
+    private final class Entry {
+        private final String key;
+        private final List<ConsumerRecord<String, V>> records;
+        private final PartitionState partition;
+        private final long bytes;
+
+        private Entry(String key, List<ConsumerRecord<String, V>> records, PartitionState partition) {
+            this.key = key;
+            this.records = records;
+            this.partition = partition;
+            this.bytes = records.stream().mapToLong(KeyParallelEngine::sizeOf).sum();
+        }
+
+        // completed records leave the pending set; failed or skipped ones keep holding the watermark back
+        private void release(boolean completed) {
+            if (completed) {
+                records.forEach(record -> partition.pending.remove(record.offset()));
+            }
+            partition.parkedBytes.addAndGet(-bytes);
+            parkedBytes.addAndGet(-bytes);
+        }
+    }
+
+    private final class PartitionState {
+        private final TopicPartition tp;
+        // delivered offsets that are not finished yet
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        private final AtomicLong parkedBytes = new AtomicLong();
+        // consumer thread only
+        private long nextOffset = -1;
+        private long committed = -1;
+        private long dueAt;
+        private boolean memoryPaused;
+        // set by workers, acted on by the consumer thread
+        private volatile boolean failed;
+        // replaced after a rewind or revoked; its queued records are skipped
+        private volatile boolean stale;
+
+        private PartitionState(TopicPartition tp) {
+            this.tp = tp;
+        }
+
+        private void track(ConsumerRecord<String, V> record) {
+            pending.add(record.offset());
+            nextOffset = record.offset() + 1;
+            dueAt = 0;
+            long bytes = sizeOf(record);
+            this.parkedBytes.addAndGet(bytes);
+            KeyParallelEngine.this.parkedBytes.addAndGet(bytes);
+        }
+
+        private long watermark() {
+            if (nextOffset < 0) {
+                return -1;
+            }
+            Long first = pending.ceiling(Long.MIN_VALUE);
+            return first != null ? first : nextOffset;
+        }
+
+        private boolean isSkipped() {
+            return stale || failed;
+        }
+    }
+
+    private static long sizeOf(ConsumerRecord<?, ?> record) {
+        return Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize()) + 64L;
+    }
+}
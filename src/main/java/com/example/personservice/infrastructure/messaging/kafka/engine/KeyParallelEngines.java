@@ -0,0 +1,70 @@
+package com.example.personservice.infrastructure.messaging.kafka.engine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+/**
+ * Creates {@link KeyParallelEngine}s and feeds them the consumer callbacks they need: it is the rebalance
+ * listener of the container factory the engines' listeners run on, and receives that factory's idle events.
+ * Engines only act on partitions they have seen, so one instance serves every engine.
+ */
+@Component
+public class KeyParallelEngines implements ConsumerAwareRebalanceListener {
+    private final AsyncTaskExecutor keyExecutor;
+    private final KeyParallelProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<KeyParallelEngine<?, ?>> engines = new CopyOnWriteArrayList<>();
+
+    public KeyParallelEngines(AsyncTaskExecutor keyExecutor, KeyParallelProperties properties, MeterRegistry meterRegistry) {
+        this.keyExecutor = keyExecutor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <S, V> KeyParallelEngine<S, V> create(String name, KeyProcessor<S, V> processor) {
+        return create(name, processor, record -> 0);
+    }
+
+    /**
+     * @param dueAt epoch millis before which a record must not be processed; 0 for no delay
+     */
+    public <S, V> KeyParallelEngine<S, V> create(
+            String name,
+            KeyProcessor<S, V> processor,
+            ToLongFunction<ConsumerRecord<?, ?>> dueAt
+    ) {
+        KeyParallelEngine<S, V> engine = new KeyParallelEngine<>(name, processor, keyExecutor, dueAt,
+                properties.getMaxParkedBytesPerPartition().toBytes(), meterRegistry);
+        engines.add(engine);
+        return engine;
+    }
+
+    @EventListener
+    public void onIdle(ListenerContainerIdleEvent event) {
+        // published on the consumer thread, so the consumer may be used here
+        Consumer<?, ?> consumer = event.getConsumer();
+        engines.forEach(engine -> engine.maintain(consumer));
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        engines.forEach(engine -> engine.onRevoked(consumer, partitions));
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        engines.forEach(engine -> engine.onLost(partitions));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.personservice.infrastructure.messaging.kafka.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "key-parallel")
+public class KeyParallelProperties {
+    // a partition is paused while its delivered but unfinished records exceed this, and resumed below half of it
+    private DataSize maxParkedBytesPerPartition = DataSize.ofMegabytes(16);
+
+    // how often offsets are committed and pauses re-evaluated while no records arrive
+    private Duration idleInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,50 @@
+package com.example.personservice.infrastructure.messaging.kafka.engine;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Per-key business logic run by a {@link KeyParallelEngine}. Records of one key are handed over one at a time,
+ * in offset order, together with state that lives as long as the key has queued records.
+ *
+ * @param <S> per-key state
+ * @param <V> record value type
+ */
+public interface KeyProcessor<S, V> {
+
+    /**
+     * Creates the state for a key that had no queued records; runs on a worker thread before its first record.
+     */
+    S open(String key);
+
+    /**
+     * Processes one record. Returns a completed stage when done; an incomplete stage parks the key, without
+     * holding a thread, until it completes. An exceptional result is a failure the processor could not handle
+     * itself: the partition is rewound and redelivered from the first record not yet completed.
+     */
+    CompletionStage<Void> process(String key, S state, ConsumerRecord<String, V> record);
+
+    /**
+     * Splits the records of a key from one poll, in offset order, into consecutive groups that are processed
+     * as one unit; all records of a group complete together. Runs on the consumer thread, so it must not block.
+     * The default keeps every record on its own.
+     */
+    default List<List<ConsumerRecord<String, V>>> coalesce(String key, List<ConsumerRecord<String, V>> records) {
+        return records.stream().map(List::of).toList();
+    }
+
+    /**
+     * Processes a group of more than one record formed by {@link #coalesce}. The default processes them one
+     * after the other.
+     */
+    default CompletionStage<Void> processGroup(String key, S state, List<ConsumerRecord<String, V>> records) {
+        CompletionStage<Void> stage = CompletableFuture.completedFuture(null);
+        for (ConsumerRecord<String, V> record : records) {
+            stage = stage.thenCompose(ignored -> process(key, state, record));
+        }
+        return stage;
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @Component
@@ -47,17 +49,30 @@ public class PersonEventProducer {
         publishToTopic(event, topic, mode.name());
     }
 
-    public void publishToTopic(PersonEvent event, String topic, String mode) {
+    public CompletableFuture<SendResult<String, Object>> publishToTopic(PersonEvent event, String topic, String mode) {
         try {
-            kafkaTemplate.send(topic, generateKey(event), event);
+            return kafkaTemplate.send(topic, generateKey(event), event);
 
         } catch (Exception e) {
             throw new KafkaProducerException("Failed to publish event", e);
         }
     }
 
+    /**
+     * Sends a batch of events back to back so the producer can pack them into as few requests as possible.
+     * Futures are returned in the same order as the events; callers decide how to handle individual failures.
+     */
+    public List<CompletableFuture<SendResult<String, Object>>> publishEvents(List<PersonEvent> events) {
+        String topic = getTopicForMode(properties.getDefaultMode());
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(events.size());
+        for (PersonEvent event : events) {
+            futures.add(publishToTopic(event, topic, properties.getDefaultMode().name()));
+        }
+        return futures;
+    }
+
     private String generateKey(PersonEvent event) {
-        return event.getPerson().getTaxNumber();
+        return event.getTaxNumber();
     }
 
     private String getTopicForMode(KafkaPersonProperties.ProcessingMode mode) {
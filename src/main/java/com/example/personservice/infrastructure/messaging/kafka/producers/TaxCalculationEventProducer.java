@@ -1,23 +1,30 @@
 package com.example.personservice.infrastructure.messaging.kafka.producers;
 
 import com.example.personservice.infrastructure.messaging.events.TaxCalculationEvent;
+import com.example.personservice.infrastructure.messaging.kafka.config.KafkaTopicConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @Slf4j
 public class TaxCalculationEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private static final String TAX_CALCULATION_EVENTS_TOPIC = "tax.calculation.kafka";
+    // the topic TaxCalculationBatchConsumer applies; keyed by tax number so one person's debts stay ordered
+    private static final String TAX_CALCULATION_EVENTS_TOPIC = KafkaTopicConfig.TAX_TOPIC_BATCH;
 
     public TaxCalculationEventProducer(KafkaTemplate<String, Object> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
     }
 
     public void publishTaxDebtCreated(TaxCalculationEvent event) {
-        kafkaTemplate.send(TAX_CALCULATION_EVENTS_TOPIC, event)
+        kafkaTemplate.send(TAX_CALCULATION_EVENTS_TOPIC, event.getTaxId(), event)
                 .whenComplete((result, ex) -> {
                     if (ex == null) {
                         log.info("TaxCalculationEvent published successfully for taxId: {}", event.getTaxId());
@@ -28,4 +35,12 @@ public class TaxCalculationEventProducer {
                 });
     }
 
+    public List<CompletableFuture<SendResult<String, Object>>> publishTaxDebtsCreated(List<TaxCalculationEvent> events) {
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(events.size());
+        for (TaxCalculationEvent event : events) {
+            futures.add(kafkaTemplate.send(TAX_CALCULATION_EVENTS_TOPIC, event.getTaxId(), event));
+        }
+        return futures;
+    }
+
 }
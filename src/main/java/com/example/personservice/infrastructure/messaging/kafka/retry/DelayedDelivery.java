@@ -0,0 +1,114 @@
+package com.example.personservice.infrastructure.messaging.kafka.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delayed delivery of retries through Kafka itself. A retry is published right away with a due-time header
+ * to a topic that only holds retries with the same delay, so within a partition the head is the first record
+ * due. A record listener that meets a record before it is due seeks back to it and pauses that partition
+ * only; the partition is resumed by the consumer thread once the record is due, on the next record delivered
+ * to that consumer or on the container's next idle event. Pending retries therefore live in the topic, not on
+ * the heap, survive restarts, and never hold up other partitions of the container.
+ * <p>
+ * Containers using this must publish idle events, so paused partitions are resumed while nothing arrives.
+ */
+@Slf4j
+@Component
+public class DelayedDelivery {
+    public static final String DUE_AT_HEADER = "retry-due-at";
+
+    // partitions paused here and when they are due; only touched by the consumer thread owning the partition
+    private final Map<TopicPartition, Long> deferred = new ConcurrentHashMap<>();
+
+    public static void setDelay(Headers headers, long delayMillis) {
+        headers.remove(DUE_AT_HEADER);
+        headers.add(DUE_AT_HEADER,
+                String.valueOf(System.currentTimeMillis() + delayMillis).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * For record listeners, on the consumer thread: returns {@code true} if the record must not be processed
+     * now, because it is not due yet or its partition is already held back. The partition is then rewound to
+     * the first held record and paused; the record must not be acknowledged.
+     */
+    public boolean deferIfNotDue(ConsumerRecord<?, ?> record, Consumer<?, ?> consumer) {
+        resumeDue(consumer);
+
+        TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+        if (deferred.containsKey(tp) && consumer.paused().contains(tp)) {
+            // fetched in the same poll as the held record; it comes again after the resume
+            return true;
+        }
+
+        long due = dueAt(record);
+        if (due <= System.currentTimeMillis()) {
+            deferred.remove(tp);
+            return false;
+        }
+        log.debug("[DelayedDelivery] Holding back {} at offset {} for {}ms",
+                tp, record.offset(), due - System.currentTimeMillis());
+        consumer.seek(tp, record.offset());
+        consumer.pause(Set.of(tp));
+        deferred.put(tp, due);
+        return true;
+    }
+
+    /**
+     * Resumes the partitions of this consumer whose held record is due. Must be called on its consumer thread.
+     */
+    public void resumeDue(Consumer<?, ?> consumer) {
+        if (deferred.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<TopicPartition> due = new HashSet<>();
+        for (TopicPartition tp : consumer.paused()) {
+            Long dueAt = deferred.get(tp);
+            if (dueAt != null && dueAt <= now) {
+                due.add(tp);
+            }
+        }
+        if (!due.isEmpty()) {
+            due.forEach(deferred::remove);
+            consumer.resume(due);
+        }
+    }
+
+    @EventListener
+    public void onIdle(ListenerContainerIdleEvent event) {
+        // published on the consumer thread, so the consumer may be used here
+        resumeDue(event.getConsumer());
+    }
+
+    /**
+     * Epoch millis at which the record is due, or 0 when it carries no due time. Batch listeners hand this
+     * to their key-parallel engine, which holds back not-yet-due partitions itself.
+     */
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(DUE_AT_HEADER);
+        return header == null ? 0 : parse(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private static long parse(String dueAt) {
+        try {
+            return Long.parseLong(dueAt);
+        } catch (NumberFormatException ex) {
+            log.warn("[DelayedDelivery] Ignoring invalid {} header: {}", DUE_AT_HEADER, dueAt);
+            return 0;
+        }
+    }
+}
@@ -8,9 +8,6 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -19,9 +16,6 @@ public class RetryRouter {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    // delay the publish to the next topic
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(5);
-
     private static final String BASE_TOPIC = "person.kafka.retry-";
     private static final String DLT_TOPIC = "person.kafka.dlt";
     private static final int MAX_RETRIES = 3;
@@ -38,18 +32,13 @@ public class RetryRouter {
         String nextTopic = BASE_TOPIC + nextRetryCount;
         long delay = calculateDelay(nextRetryCount);
 
-        log.info("Scheduling retry #{} for {} to topic {} in {}ms", nextRetryCount, taxNumber, nextTopic, delay);
-
-        scheduler.schedule(() -> {
-            try {
-                ProducerRecord<String, Object> record = new ProducerRecord<>(nextTopic, taxNumber, event);
-                record.headers().add("retry-count", String.valueOf(nextRetryCount).getBytes(StandardCharsets.UTF_8));
-                kafkaTemplate.send(record);
-            } catch (Exception e) {
-                log.error("Failed to route to next topic", e);
-            }
-        }, delay, TimeUnit.MILLISECONDS);
+        log.info("Publishing retry #{} for {} to topic {}, due in {}ms", nextRetryCount, taxNumber, nextTopic, delay);
 
+        // published now; the retry consumer holds the record until it is due
+        ProducerRecord<String, Object> record = new ProducerRecord<>(nextTopic, taxNumber, event);
+        record.headers().add("retry-count", String.valueOf(nextRetryCount).getBytes(StandardCharsets.UTF_8));
+        DelayedDelivery.setDelay(record.headers(), delay);
+        kafkaTemplate.send(record);
     }
 
     public void sendToDlt(PersonEvent event, String taxNumber) {
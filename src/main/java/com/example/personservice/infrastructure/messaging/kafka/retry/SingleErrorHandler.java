@@ -1,9 +1,12 @@
 package com.example.personservice.infrastructure.messaging.kafka.retry;
 
+import com.example.personservice.infrastructure.messaging.events.DomainEvent;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.jspecify.annotations.NonNull;
@@ -13,10 +16,12 @@ import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * Routes records that failed in a record listener: retry number n goes to {@code <topic>-retry-<n>}, due after
+ * 1s, 2s and 4s, and fatal errors or the last failed retry to {@code <topic>-dlt}. Every retry topic thus holds
+ * one delay only, which is what lets {@link DelayedDelivery} hold back a partition by its head record.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -24,13 +29,13 @@ public class SingleErrorHandler implements CommonErrorHandler {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ErrorClassifier errorClassifier;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(10);
+    private final OperationTracker operationTracker;
 
     private static final int MAX_RETRY_ATTEMPTS = 3;
     private static final String RETRY_COUNT_HEADER = "retry-count";
     private static final String RETRY_DELAY_HEADER = "retry-delay";
     private static final String ORIGINAL_TOPIC_HEADER = "original-topic";
-    private static final String RETRY_TOPIC_SUFFIX = "-retry";
+    private static final String RETRY_TOPIC_SUFFIX = "-retry-";
     private static final String DLT_TOPIC_SUFFIX = "-dlt";
 
     @Override
@@ -49,11 +54,17 @@ public class SingleErrorHandler implements CommonErrorHandler {
         if (errorType == ErrorClassifier.ErrorType.FATAL || retryCount >= MAX_RETRY_ATTEMPTS) {
             log.warn("Sending record to DLT. Error type: {}, Retry count: {}", errorType, retryCount);
             sendToDlt(record);
+            if (record.value() instanceof DomainEvent<?> event) {
+                operationTracker.markFailed(event.getEventId());
+            }
             return true; // Acknowledge the message
         }
 
         log.info("Sending record to retry topic. Retry count: {}", retryCount + 1);
         sendToRetryTopic(record, retryCount + 1);
+        if (record.value() instanceof DomainEvent<?> event) {
+            operationTracker.markRetrying(event.getEventId());
+        }
         return true; // Acknowledge the message
     }
 
@@ -72,7 +83,7 @@ public class SingleErrorHandler implements CommonErrorHandler {
     }
 
     private void sendToRetryTopic(ConsumerRecord<?, ?> record, int retryCount) {
-        String retryTopic = getRetryTopicName(record.topic());
+        String retryTopic = getRetryTopicName(record.topic(), retryCount);
         long delay = calculateExponentialBackoff(retryCount);
 
         Headers headers = new RecordHeaders();
@@ -91,8 +102,9 @@ public class SingleErrorHandler implements CommonErrorHandler {
         headers.add(RETRY_COUNT_HEADER, String.valueOf(retryCount).getBytes());
         headers.add(RETRY_DELAY_HEADER, String.valueOf(delay).getBytes());
         headers.add(ORIGINAL_TOPIC_HEADER, record.topic().getBytes());
+        DelayedDelivery.setDelay(headers, delay);
 
-        scheduleRetry(retryTopic, record.key(), record.value(), headers, delay);
+        publishRetry(retryTopic, record.key(), record.value(), headers);
     }
 
     private void sendToDlt(ConsumerRecord<?, ?> record) {
@@ -116,31 +128,37 @@ public class SingleErrorHandler implements CommonErrorHandler {
         }
     }
 
-    private void scheduleRetry(String topic, Object key, Object value, Headers headers, long delay) {
-        scheduler.schedule(() -> {
-            try {
-                CompletableFuture<org.springframework.kafka.support.SendResult<String, Object>> future =
-                        kafkaTemplate.send(topic, (String) key, value);
-
-                future.whenComplete((result, throwable) -> {
-                    if (throwable != null) {
-                        log.error("Failed to send retry message to topic: {}", topic, throwable);
-                    } else {
-                        log.info("Successfully sent retry message to topic: {}", topic);
-                    }
-                });
-            } catch (Exception e) {
-                log.error("Error scheduling retry for topic: {}", topic, e);
-            }
-        }, delay, TimeUnit.MILLISECONDS);
+    // published now with a due time; the retry topic's consumer holds the record until then
+    private void publishRetry(String topic, Object key, Object value, Headers headers) {
+        try {
+            CompletableFuture<org.springframework.kafka.support.SendResult<String, Object>> future =
+                    kafkaTemplate.send(new ProducerRecord<>(topic, null, (String) key, value, headers));
+
+            future.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    log.error("Failed to send retry message to topic: {}", topic, throwable);
+                } else {
+                    log.info("Successfully sent retry message to topic: {}", topic);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error publishing retry for topic: {}", topic, e);
+        }
+    }
+
+    // one topic per attempt, so all records of a retry topic wait the same time
+    private String getRetryTopicName(String topic, int retryCount) {
+        return baseTopic(topic) + RETRY_TOPIC_SUFFIX + retryCount;
     }
 
-    private String getRetryTopicName(String originalTopic) {
-        return originalTopic + RETRY_TOPIC_SUFFIX;
+    private String getDltTopicName(String topic) {
+        return baseTopic(topic) + DLT_TOPIC_SUFFIX;
     }
 
-    private String getDltTopicName(String originalTopic) {
-        return originalTopic + DLT_TOPIC_SUFFIX;
+    // "<topic>-retry-<n>" back to "<topic>"
+    private String baseTopic(String topic) {
+        int suffix = topic.lastIndexOf(RETRY_TOPIC_SUFFIX);
+        return suffix > 0 ? topic.substring(0, suffix) : topic;
     }
 
     private long calculateExponentialBackoff(int retryCount) {
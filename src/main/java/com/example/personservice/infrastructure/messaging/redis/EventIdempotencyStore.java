@@ -0,0 +1,232 @@
+package com.example.personservice.infrastructure.messaging.redis;
+
+import com.example.personservice.infrastructure.messaging.events.DomainEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which events were already applied, so redelivered Kafka records are skipped.
+ * <p>
+ * Event ids are kept in one Redis set per hour of {@code occurredOn}, and every set expires as a whole once
+ * it is older than the retention, instead of one key with its own TTL per event. Since an event always falls
+ * in the same bucket, a batch is checked with one SMISMEMBER per bucket it touches and marked with one SADD
+ * per bucket, each in a single pipelined round trip. Ids confirmed as processed are kept in a bounded local
+ * cache in front of Redis; ids not found are never cached, as another node may apply the event next.
+ * <p>
+ * Marks are written after commit, so this is only a cheap filter; the transactional processed_event ledger
+ * (see {@code ProcessedEventRepository}) is what guarantees an event is applied once. Redis errors therefore
+ * never fail a batch: checks fall back to the local cache and marks are skipped.
+ */
+@Slf4j
+@Component
+public class EventIdempotencyStore {
+    private static final String KEY_PREFIX = "event:processed:";
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration retention;
+    private final Cache<UUID, Boolean> local;
+
+    private final Timer checkTimer;
+    private final Timer markTimer;
+    private final Counter localDuplicates;
+    private final Counter redisDuplicates;
+    private final Counter redisErrors;
+    private final AtomicLong redisEntries = new AtomicLong();
+
+    public EventIdempotencyStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${event-idempotency.retention:24h}") Duration retention,
+            @Value("${event-idempotency.local-max-size:100000}") long localMaxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.retention = retention;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "event.idempotency.local");
+        this.checkTimer = meterRegistry.timer("event.idempotency.redis", "operation", "check");
+        this.markTimer = meterRegistry.timer("event.idempotency.redis", "operation", "mark");
+        this.localDuplicates = meterRegistry.counter("event.idempotency.duplicates", "source", "local");
+        this.redisDuplicates = meterRegistry.counter("event.idempotency.duplicates", "source", "redis");
+        this.redisErrors = meterRegistry.counter("event.idempotency.redis.errors");
+        meterRegistry.gauge("event.idempotency.redis.entries", redisEntries, AtomicLong::get);
+    }
+
+    /**
+     * Returns the ids of the given events that were already processed. When Redis cannot be reached only the
+     * locally known ids are returned; the others are applied and the processed_event ledger skips any that
+     * were seen before.
+     */
+    public Set<UUID> findProcessed(Collection<? extends DomainEvent<?>> events) {
+        Set<UUID> processed = new HashSet<>();
+        Map<String, List<String>> unknownByBucket = new LinkedHashMap<>();
+        for (DomainEvent<?> event : events) {
+            UUID eventId = event.getEventId();
+            if (local.getIfPresent(eventId) != null) {
+                localDuplicates.increment();
+                processed.add(eventId);
+                continue;
+            }
+            unknownByBucket.computeIfAbsent(bucketKey(event), k -> new ArrayList<>()).add(eventId.toString());
+        }
+        if (unknownByBucket.isEmpty()) {
+            return processed;
+        }
+
+        List<String> keys = new ArrayList<>(unknownByBucket.keySet());
+        List<Object> results;
+        try {
+            results = checkTimer.record(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                for (String key : keys) {
+                    strings.sMIsMember(key, unknownByBucket.get(key).toArray(String[]::new));
+                }
+                return null;
+            }));
+        } catch (DataAccessException ex) {
+            redisErrors.increment();
+            log.warn("[Idempotency] Failed to check {} events, relying on the ledger: {}", events.size(), ex.getMessage());
+            return processed;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            List<String> ids = unknownByBucket.get(keys.get(i));
+            List<?> members = (List<?>) results.get(i);
+            for (int j = 0; j < ids.size(); j++) {
+                if (Boolean.TRUE.equals(members.get(j))) {
+                    UUID eventId = UUID.fromString(ids.get(j));
+                    redisDuplicates.increment();
+                    local.put(eventId, Boolean.TRUE);
+                    processed.add(eventId);
+                }
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Records the events as processed. Inside a transaction this happens after commit, so a rolled back
+     * batch is not marked; without one it happens immediately.
+     */
+    public void markProcessed(Collection<? extends DomainEvent<?>> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<DomainEvent<?>> snapshot = List.copyOf(events);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markNow(snapshot);
+                }
+            });
+        } else {
+            markNow(snapshot);
+        }
+    }
+
+    /**
+     * Refreshes the gauge of ids held in Redis, with one pipelined SCARD over the buckets in retention.
+     */
+    @Scheduled(fixedDelayString = "${event-idempotency.metrics-interval:1m}")
+    public void refreshMetrics() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        List<String> keys = new ArrayList<>();
+        for (long i = 0; i <= retention.toHours(); i++) {
+            keys.add(KEY_PREFIX + BUCKET_FORMAT.format(hour.minusHours(i)));
+        }
+        try {
+            List<Object> sizes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                keys.forEach(strings::sCard);
+                return null;
+            });
+            redisEntries.set(sizes.stream().mapToLong(size -> size instanceof Long count ? count : 0).sum());
+        } catch (DataAccessException ex) {
+            log.debug("[Idempotency] Failed to read bucket sizes: {}", ex.getMessage());
+        }
+    }
+
+    private void markNow(List<DomainEvent<?>> events) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List<String>> idsByBucket = new LinkedHashMap<>();
+        Map<String, Duration> ttlByBucket = new LinkedHashMap<>();
+        for (DomainEvent<?> event : events) {
+            local.put(event.getEventId(), Boolean.TRUE);
+
+            LocalDateTime hour = bucketHour(event);
+            Duration ttl = Duration.between(now, hour.plusHours(1)).plus(retention);
+            if (ttl.isNegative() || ttl.isZero()) {
+                // older than the retention; it would not be found anyway
+                continue;
+            }
+            String key = bucketKey(hour);
+            idsByBucket.computeIfAbsent(key, k -> new ArrayList<>()).add(event.getEventId().toString());
+            ttlByBucket.put(key, ttl);
+        }
+        if (idsByBucket.isEmpty()) {
+            return;
+        }
+
+        try {
+            markTimer.record(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                idsByBucket.forEach((key, ids) -> {
+                    strings.sAdd(key, ids.toArray(String[]::new));
+                    strings.expire(key, ttlByBucket.get(key).toSeconds());
+                });
+                return null;
+            }));
+        } catch (DataAccessException ex) {
+            // the events are applied already; failing here would only apply them again
+            redisErrors.increment();
+            log.warn("[Idempotency] Failed to mark {} events as processed: {}", events.size(), ex.getMessage());
+        }
+    }
+
+    private static String bucketKey(DomainEvent<?> event) {
+        return bucketKey(bucketHour(event));
+    }
+
+    private static String bucketKey(LocalDateTime hour) {
+        return KEY_PREFIX + BUCKET_FORMAT.format(hour);
+    }
+
+    private static LocalDateTime bucketHour(DomainEvent<?> event) {
+        LocalDateTime occurredOn = event.getOccurredOn() != null ? event.getOccurredOn() : LocalDateTime.now();
+        return occurredOn.truncatedTo(ChronoUnit.HOURS);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.personservice.infrastructure.messaging.redis;
+
+import com.example.personservice.application.dto.operation.OperationStatusDto.Status;
+import com.example.personservice.infrastructure.exception.OperationNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Status of asynchronous writes, keyed by the {@code eventId} of the published event.
+ * <p>
+ * The REST call registers the event as PENDING before publishing it; consumers move it to RETRYING,
+ * APPLIED or FAILED. Statuses live in Redis with a TTL, so any node can answer for an event applied by
+ * another node, and every change is published on {@link #CHANNEL}. A change is a compare-and-set in Redis,
+ * so a late PENDING or RETRYING from any node never overwrites a final status. Each node keeps a bounded local copy
+ * and completes its own waiters from those messages; a waiter is just a future, no thread is parked.
+ */
+@Slf4j
+@Component
+public class OperationTracker {
+    public static final String CHANNEL = "operation:status";
+
+    private static final String KEY_PREFIX = "operation:status:";
+    private static final char MESSAGE_SEPARATOR = '|';
+
+    // ARGV: new status, TTL in ms, "1" if the new status is final, then the final statuses
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if current and ARGV[3] == '0' then
+              for i = 4, #ARGV do
+                if current == ARGV[i] then return 0 end
+              end
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    private static final String[] TERMINAL_STATUSES = Arrays.stream(Status.values())
+            .filter(Status::isTerminal)
+            .map(Status::name)
+            .toArray(String[]::new);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration statusTtl;
+    private final Cache<UUID, Status> statuses;
+    private final Cache<UUID, CompletableFuture<Status>> waiters;
+
+    public OperationTracker(
+            StringRedisTemplate redisTemplate,
+            @Value("${operations.status-ttl:1h}") Duration statusTtl,
+            @Value("${operations.local-max-size:100000}") long localMaxSize,
+            @Value("${operations.max-wait:30s}") Duration maxWait
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.statusTtl = statusTtl;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(statusTtl)
+                .build();
+        // waiters time out on their own; this only bounds how long an abandoned future is kept
+        this.waiters = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(maxWait.multipliedBy(2))
+                .build();
+    }
+
+    /**
+     * Records a new operation as PENDING. Must be called before the event is published,
+     * otherwise a fast consumer's update could be overwritten.
+     */
+    public void register(UUID eventId) {
+        statuses.put(eventId, Status.PENDING);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + eventId, Status.PENDING.name(), statusTtl);
+        } catch (DataAccessException ex) {
+            log.warn("[Operations] Failed to register event {}: {}", eventId, ex.getMessage());
+        }
+    }
+
+    public void markApplied(UUID eventId) {
+        update(eventId, Status.APPLIED);
+    }
+
+    public void markRetrying(UUID eventId) {
+        update(eventId, Status.RETRYING);
+    }
+
+    public void markFailed(UUID eventId) {
+        update(eventId, Status.FAILED);
+    }
+
+    public Status getStatus(UUID eventId) {
+        Status status = statuses.getIfPresent(eventId);
+        if (status != null) {
+            return status;
+        }
+
+        String stored = redisTemplate.opsForValue().get(KEY_PREFIX + eventId);
+        if (stored == null) {
+            throw OperationNotFoundException.byEventId(eventId);
+        }
+        status = Status.valueOf(stored);
+        statuses.put(eventId, status);
+        return status;
+    }
+
+    /**
+     * Completes with the final status (APPLIED or FAILED) of the operation. Callers bound the wait themselves.
+     */
+    public CompletableFuture<Status> awaitTerminal(UUID eventId) {
+        CompletableFuture<Status> future = waiters.get(eventId, id -> new CompletableFuture<>());
+        // the status may have become final before the waiter was registered
+        Status current = getStatus(eventId);
+        if (current.isTerminal()) {
+            future.complete(current);
+        }
+        return future;
+    }
+
+    /**
+     * Handles a status change published by any node (including this one).
+     */
+    public void onStatusMessage(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0) {
+            log.warn("[Operations] Ignoring malformed status message: {}", message);
+            return;
+        }
+        applyLocally(UUID.fromString(message.substring(0, separator)), Status.valueOf(message.substring(separator + 1)));
+    }
+
+    private void update(UUID eventId, Status status) {
+        if (eventId == null) {
+            return;
+        }
+        Status current = statuses.getIfPresent(eventId);
+        if (current != null && current.isTerminal() && !status.isTerminal()) {
+            return;
+        }
+        applyLocally(eventId, status);
+        try {
+            String[] args = new String[3 + TERMINAL_STATUSES.length];
+            args[0] = status.name();
+            args[1] = String.valueOf(statusTtl.toMillis());
+            args[2] = status.isTerminal() ? "1" : "0";
+            System.arraycopy(TERMINAL_STATUSES, 0, args, 3, TERMINAL_STATUSES.length);
+
+            Long written = redisTemplate.execute(UPDATE_SCRIPT, List.of(KEY_PREFIX + eventId), (Object[]) args);
+            if (written != null && written == 1) {
+                redisTemplate.convertAndSend(CHANNEL, eventId.toString() + MESSAGE_SEPARATOR + status.name());
+            }
+        } catch (DataAccessException ex) {
+            log.warn("[Operations] Failed to store status {} for event {}: {}", status, eventId, ex.getMessage());
+        }
+    }
+
+    private void applyLocally(UUID eventId, Status status) {
+        // updates from different nodes may arrive out of order; a final status is never downgraded
+        Status previous = statuses.asMap().merge(eventId, status,
+                (current, next) -> current.isTerminal() && !next.isTerminal() ? current : next);
+        if (previous != status) {
+            return;
+        }
+        if (status.isTerminal()) {
+            CompletableFuture<Status> future = waiters.asMap().remove(eventId);
+            if (future != null) {
+                future.complete(status);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.personservice.infrastructure.messaging.redis;
+
+import com.example.personservice.infrastructure.cache.PersonCache;
+import com.example.personservice.infrastructure.cache.PersonCacheProperties;
+import com.example.personservice.infrastructure.cache.TaxNumberIndex;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One listener container (one subscription connection) for all cross-node broadcasts.
+ */
+@Configuration
+public class RedisPubSubConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            PersonCache personCache,
+            PersonCacheProperties cacheProperties,
+            OperationTracker operationTracker,
+            RetryLatch retryLatch,
+            TaxNumberIndex taxNumberIndex
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> personCache.onInvalidationMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        container.addMessageListener(
+                (message, pattern) -> operationTracker.onStatusMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(OperationTracker.CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> retryLatch.onSignalMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(RetryLatch.CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> taxNumberIndex.onRebuildMessage(),
+                new ChannelTopic(TaxNumberIndex.REBUILD_CHANNEL));
+        return container;
+    }
+}
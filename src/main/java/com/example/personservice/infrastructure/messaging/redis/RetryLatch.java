@@ -1,26 +1,59 @@
 package com.example.personservice.infrastructure.messaging.redis;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Lets the batch consumer wait for the outcome of a retry of the same tax number.
+ * <p>
+ * Waiters are local futures completed from a single Redis pub/sub subscription per node (see
+ * {@link RedisPubSubConfig}), or directly when the retry consumer runs in the same JVM, so waiting holds
+ * neither a thread, a Redis connection nor a blocking command. Every notification is also pushed onto the per-key
+ * signal list in the same scripted round trip; a waiter checks that list when it starts and when it times
+ * out, which covers signals published before it subscribed or lost with a dropped subscription.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RetryLatch {
 
-    private final StringRedisTemplate redisTemplate;
+    public static final String CHANNEL = "kafka:retry:signal";
 
     private static final String SIGNAL_KEY_PREFIX = "kafka:retry:signal:";
     private static final String RETRY_FLAG_PREFIX = "kafka:retry:flag:";
+    private static final char MESSAGE_SEPARATOR = '|';
+    private static final long SIGNAL_TTL_SECONDS = TimeUnit.HOURS.toSeconds(1);
+
+    // RPUSH + EXPIRE the fallback signal, clear the retrying flag and publish, in one round trip
+    private static final RedisScript<Long> NOTIFY_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('RPUSH', KEYS[1], ARGV[1]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "redis.call('DEL', KEYS[2]) " +
+            "return redis.call('PUBLISH', ARGV[3], ARGV[4])",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, CompletableFuture<RetryStatus>> waiters = new ConcurrentHashMap<>();
 
     public enum RetryStatus { SUCCESS, DLT, TIMEOUT }
 
+    public RetryLatch(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
     /**
-     * NEW METHOD: Clears any stale signals for this tax number.
+     * Clears any stale signals for this tax number.
      * This must be called by the BatchConsumer before processing events for a key.
      * This prevents the "Ghost Signal" issue where a current event reads a DLT signal
      * left over from a previous test run.
@@ -34,34 +67,71 @@ public class RetryLatch {
     }
 
     // Called by batch consumer
-    // Blocks until result is available or timeout
-    public RetryStatus waitForResult(String taxNumber, long timeout) {
+    // Completes when the result is available or after the timeout, without holding a thread meanwhile
+    public CompletableFuture<RetryStatus> awaitResult(String taxNumber, Duration timeout, Executor executor) {
         String key = SIGNAL_KEY_PREFIX + taxNumber;
         log.info("Waiting for retry result for key: {}", key);
 
-        // leftPop is a blocking call on Redis side
-        String result = redisTemplate.opsForList().leftPop(key, timeout, TimeUnit.SECONDS);
-
-        if (result == null) {
-            log.warn("Timeout waiting for retry result for key: {}", key);
-            return RetryStatus.TIMEOUT;
+        CompletableFuture<RetryStatus> waiter = waiters.computeIfAbsent(taxNumber, k -> new CompletableFuture<>());
+        // the signal may have been sent before we were listening
+        RetryStatus early = popSignal(key);
+        if (early != null) {
+            waiters.remove(taxNumber, waiter);
+            return CompletableFuture.completedFuture(early);
         }
 
-        return RetryStatus.valueOf(result);
+        // continue on the executor: the waiter completes on the pub/sub or timer thread
+        return waiter.completeOnTimeout(RetryStatus.TIMEOUT, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApplyAsync(status -> {
+                    waiters.remove(taxNumber, waiter);
+                    // also drops the list copy so a later wait on this key does not read it again
+                    RetryStatus listed = popSignal(key);
+                    if (status != RetryStatus.TIMEOUT) {
+                        return status;
+                    }
+                    if (listed != null) {
+                        log.info("Recovered missed retry signal for key: {}", key);
+                        return listed;
+                    }
+                    log.warn("Timeout waiting for retry result for key: {}", key);
+                    return RetryStatus.TIMEOUT;
+                }, executor);
     }
 
     // Called by retry consumer
-    // Pushes result to redis to unblock batch consumer
+    // Wakes up the batch consumer waiting on this key, wherever it runs
     public void notifyResult(String taxNumber, RetryStatus status) {
         String key = SIGNAL_KEY_PREFIX + taxNumber;
         log.info("Notifying result {} for key {}", status, key);
 
-        // rightPush adds to the list, waking up the leftPop
-        redisTemplate.opsForList().rightPush(key, status.name());
-        redisTemplate.expire(key, 1, TimeUnit.HOURS);
+        CompletableFuture<RetryStatus> local = waiters.get(taxNumber);
+        if (local != null && local.complete(status)) {
+            // the waiter is in this JVM; only the "currently retrying" flag needs clearing
+            setRetrying(taxNumber, false);
+            return;
+        }
 
-        // Clear the "currently retrying" flag
-        setRetrying(taxNumber, false);
+        redisTemplate.execute(NOTIFY_SCRIPT,
+                List.of(key, RETRY_FLAG_PREFIX + taxNumber),
+                status.name(),
+                String.valueOf(SIGNAL_TTL_SECONDS),
+                CHANNEL,
+                taxNumber + MESSAGE_SEPARATOR + status.name());
+    }
+
+    /**
+     * Handles a signal published by {@link #notifyResult} on any node.
+     */
+    public void onSignalMessage(String message) {
+        int separator = message.lastIndexOf(MESSAGE_SEPARATOR);
+        if (separator < 0) {
+            log.warn("Ignoring malformed retry signal: {}", message);
+            return;
+        }
+        CompletableFuture<RetryStatus> waiter = waiters.get(message.substring(0, separator));
+        if (waiter != null) {
+            waiter.complete(RetryStatus.valueOf(message.substring(separator + 1)));
+        }
     }
 
     public void setRetrying(String taxNumber, boolean isRetrying) {
@@ -77,4 +147,14 @@ public class RetryLatch {
         String key = RETRY_FLAG_PREFIX + taxNumber;
         return Boolean.TRUE.equals(redisTemplate.hasKey(key));
     }
+
+    private RetryStatus popSignal(String key) {
+        try {
+            String result = redisTemplate.opsForList().leftPop(key);
+            return result != null ? RetryStatus.valueOf(result) : null;
+        } catch (DataAccessException ex) {
+            log.warn("Failed to read retry signal list {}: {}", key, ex.getMessage());
+            return null;
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.personservice.infrastructure.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bulk writes to the person table through PostgreSQL COPY.
+ * Every chunk is copied into a transaction-scoped staging table and merged into person in the same
+ * transaction that advances the import checkpoint, so a crash never loses or double-counts a chunk.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PersonCopyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE person_import_staging (" +
+            "first_name VARCHAR(255), last_name VARCHAR(255), date_of_birth DATE, tax_number VARCHAR(50)" +
+            ") ON COMMIT DROP";
+
+    private static final String COPY_STAGING_SQL =
+            "COPY person_import_staging (first_name, last_name, date_of_birth, tax_number) FROM STDIN WITH (FORMAT csv)";
+
+    // Existing rows win; duplicates inside a chunk collapse to one row per tax number
+    private static final String MERGE_SQL =
+            "INSERT INTO person (id, first_name, last_name, date_of_birth, tax_number, tax_debt, created_at, updated_at) " +
+            "SELECT DISTINCT ON (tax_number) gen_random_uuid(), first_name, last_name, date_of_birth, tax_number, 0, now(), now() " +
+            "FROM person_import_staging ORDER BY tax_number " +
+            "ON CONFLICT (tax_number) DO NOTHING";
+
+    private static final String UPSERT_CHECKPOINT_SQL =
+            "INSERT INTO person_import_checkpoint (file_path, byte_offset, rows_loaded, rows_rejected, completed, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (file_path) DO UPDATE SET byte_offset = EXCLUDED.byte_offset, " +
+            "rows_loaded = person_import_checkpoint.rows_loaded + EXCLUDED.rows_loaded, " +
+            "rows_rejected = EXCLUDED.rows_rejected, completed = EXCLUDED.completed, updated_at = now()";
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Checkpoint {
+        private final long byteOffset;
+        private final long rowsLoaded;
+        private final long rowsRejected;
+        private final boolean completed;
+    }
+
+    public Optional<Checkpoint> findCheckpoint(String filePath) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(
+                "SELECT byte_offset, rows_loaded, rows_rejected, completed FROM person_import_checkpoint WHERE file_path = ?",
+                (rs, rowNum) -> new Checkpoint(
+                        rs.getLong("byte_offset"),
+                        rs.getLong("rows_loaded"),
+                        rs.getLong("rows_rejected"),
+                        rs.getBoolean("completed")),
+                filePath);
+        return checkpoints.stream().findFirst();
+    }
+
+    public void deleteCheckpoint(String filePath) {
+        jdbcTemplate.update("DELETE FROM person_import_checkpoint WHERE file_path = ?", filePath);
+    }
+
+    /**
+     * Loads one chunk of CSV rows (first_name, last_name, date_of_birth, tax_number) and moves the checkpoint
+     * to {@code nextOffset}. Returns the number of rows actually inserted into person.
+     */
+    public int copyAndMerge(byte[] csvRows, String filePath, long nextOffset, long rowsRejected, boolean completed) {
+        Integer inserted = transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            jdbcTemplate.execute(CREATE_STAGING_SQL);
+
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            long staged;
+            try {
+                staged = copyManager.copyIn(COPY_STAGING_SQL, new ByteArrayInputStream(csvRows));
+            } catch (IOException ex) {
+                throw new SQLException("Failed to stream rows into staging table", ex);
+            }
+
+            int merged = jdbcTemplate.update(MERGE_SQL);
+            jdbcTemplate.update(UPSERT_CHECKPOINT_SQL, filePath, nextOffset, merged, rowsRejected, completed);
+
+            log.debug("[Import] Staged {} rows, merged {} into person for {}", staged, merged, filePath);
+            return merged;
+        }));
+        return inserted == null ? 0 : inserted;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.personservice.infrastructure.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyOut;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads the person table in id ranges with COPY TO STDOUT. All range scans attach to one exported
+ * snapshot, so parallel workers on separate connections still see a single consistent state of the table.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PersonExportRepository {
+
+    public static final String COLUMNS = "id, first_name, last_name, date_of_birth, tax_number, tax_debt";
+
+    private final DataSource dataSource;
+
+    /**
+     * Holds the transaction that exported the snapshot; it must stay open until every range has been read.
+     */
+    @Getter
+    public static class Snapshot implements AutoCloseable {
+        private final Connection connection;
+        private final String snapshotId;
+
+        private Snapshot(Connection connection, String snapshotId) {
+            this.connection = connection;
+            this.snapshotId = snapshotId;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                connection.rollback();
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    public Snapshot openSnapshot() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT pg_export_snapshot()")) {
+                rs.next();
+                return new Snapshot(connection, rs.getString(1));
+            }
+        } catch (SQLException ex) {
+            connection.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Copies persons with {@code lower <= id < upper} as CSV into {@code out}; a null bound is open.
+     * Returns the number of rows written.
+     */
+    public long copyRange(String snapshotId, UUID lower, UUID upper, FileChannel out, LongConsumer bytesWritten)
+            throws SQLException, IOException {
+        // bounds are generated UUIDs and the snapshot id comes from the server, so inlining them is safe;
+        // COPY does not accept bind parameters
+        StringBuilder sql = new StringBuilder("COPY (SELECT ").append(COLUMNS).append(" FROM person");
+        if (lower != null || upper != null) {
+            sql.append(" WHERE ");
+            if (lower != null) {
+                sql.append("id >= '").append(lower).append("'");
+            }
+            if (lower != null && upper != null) {
+                sql.append(" AND ");
+            }
+            if (upper != null) {
+                sql.append("id < '").append(upper).append("'");
+            }
+        }
+        sql.append(") TO STDOUT WITH (FORMAT csv)");
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+                }
+
+                CopyOut copy = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql.toString());
+                byte[] chunk;
+                while ((chunk = copy.readFromCopy()) != null) {
+                    ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    bytesWritten.accept(chunk.length);
+                }
+                return copy.getHandledRowCount();
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+}
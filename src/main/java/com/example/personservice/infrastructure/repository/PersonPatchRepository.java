@@ -0,0 +1,48 @@
+package com.example.personservice.infrastructure.repository;
+
+import com.example.personservice.infrastructure.messaging.events.PersonDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Partial updates of the person table: only the columns a delta changes are written, in one statement that
+ * also bumps the optimistic-lock version, without loading the entity first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PersonPatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applies the delta to the person with its id and returns the version the row had before, or empty when
+     * there is no such person.
+     */
+    public Optional<Long> patch(PersonDelta delta) {
+        StringBuilder sql = new StringBuilder("UPDATE person SET ");
+        List<Object> args = new ArrayList<>();
+        if (delta.getFirstName() != null) {
+            sql.append("first_name = ?, ");
+            args.add(delta.getFirstName());
+        }
+        if (delta.getLastName() != null) {
+            sql.append("last_name = ?, ");
+            args.add(delta.getLastName());
+        }
+        if (delta.getDateOfBirth() != null) {
+            sql.append("date_of_birth = ?, ");
+            args.add(Date.valueOf(delta.getDateOfBirth()));
+        }
+        sql.append("version = version + 1, updated_at = now() WHERE id = ? RETURNING version - 1");
+        args.add(delta.getId());
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> rs.getLong(1), args.toArray())
+                .stream().findFirst();
+    }
+}
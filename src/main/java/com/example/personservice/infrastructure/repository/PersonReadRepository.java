@@ -0,0 +1,185 @@
+package com.example.personservice.infrastructure.repository;
+
+import com.example.personservice.application.dto.person.PersonResponseDto;
+import com.example.personservice.application.dto.person.PersonVersionDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Read-only queries that select just the columns a response needs and map them straight into DTOs.
+ * Nothing goes through the persistence context, so there is no entity hydration, snapshot for dirty
+ * checking or first-level cache entry; age is computed by the database.
+ */
+@Repository
+public class PersonReadRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String AGE_COLUMN = "CAST(date_part('year', age(date_of_birth)) AS INT) AS age";
+
+    private static final String PERSON_COLUMNS =
+            "id, first_name, last_name, " + AGE_COLUMN + ", tax_number, tax_debt, version";
+
+    private static final RowMapper<PersonResponseDto> PERSON_MAPPER = (rs, rowNum) -> {
+        PersonResponseDto dto = new PersonResponseDto();
+        dto.setId(rs.getObject("id", UUID.class));
+        dto.setFirstName(rs.getString("first_name"));
+        dto.setLastName(rs.getString("last_name"));
+        dto.setAge(rs.getInt("age"));
+        dto.setTaxNumber(rs.getString("tax_number"));
+        dto.setTaxDebt(rs.getBigDecimal("tax_debt"));
+        dto.setVersion(rs.getLong("version"));
+        return dto;
+    };
+
+    private static final RowMapper<PersonVersionDto> VERSION_MAPPER = (rs, rowNum) -> {
+        PersonVersionDto dto = new PersonVersionDto();
+        dto.setVersion(rs.getLong("version"));
+        dto.setAge(rs.getInt("age"));
+        return dto;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public PersonReadRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+    }
+
+    public List<PersonResponseDto> findAll() {
+        return jdbcTemplate.query("SELECT " + PERSON_COLUMNS + " FROM person", PERSON_MAPPER);
+    }
+
+    public Optional<PersonResponseDto> findById(UUID id) {
+        return jdbcTemplate.query("SELECT " + PERSON_COLUMNS + " FROM person WHERE id = ?", PERSON_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    public Optional<PersonResponseDto> findByTaxNumber(String taxNumber) {
+        return jdbcTemplate.query("SELECT " + PERSON_COLUMNS + " FROM person WHERE tax_number = ?", PERSON_MAPPER, taxNumber)
+                .stream().findFirst();
+    }
+
+    public Optional<PersonVersionDto> findVersionById(UUID id) {
+        return jdbcTemplate.query("SELECT version, " + AGE_COLUMN + " FROM person WHERE id = ?", VERSION_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    public Optional<PersonVersionDto> findVersionByTaxNumber(String taxNumber) {
+        return jdbcTemplate.query("SELECT version, " + AGE_COLUMN + " FROM person WHERE tax_number = ?", VERSION_MAPPER, taxNumber)
+                .stream().findFirst();
+    }
+
+    public List<PersonResponseDto> findAllByIds(Collection<UUID> ids) {
+        return jdbcTemplate.query("SELECT " + PERSON_COLUMNS + " FROM person WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+                PERSON_MAPPER);
+    }
+
+    public List<PersonResponseDto> findAllByTaxNumbers(Collection<String> taxNumbers) {
+        return jdbcTemplate.query("SELECT " + PERSON_COLUMNS + " FROM person WHERE tax_number = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", taxNumbers.toArray())),
+                PERSON_MAPPER);
+    }
+
+    // Persons without a row are absent from the map; a present key may map to a null debt
+    public Map<String, BigDecimal> findTaxDebtsByTaxNumbers(Collection<String> taxNumbers) {
+        Map<String, BigDecimal> debts = new HashMap<>(taxNumbers.size() * 2);
+        jdbcTemplate.query("SELECT tax_number, tax_debt FROM person WHERE tax_number = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", taxNumbers.toArray())),
+                rs -> {
+                    debts.put(rs.getString("tax_number"), rs.getBigDecimal("tax_debt"));
+                });
+        return debts;
+    }
+
+    /**
+     * Planner estimate of the rows {@code PersonSpecification.hasNameAndAge} matches, read from EXPLAIN
+     * without running the query. The predicates mirror that specification and must be kept in step with it.
+     */
+    public long estimateSearchCount(String firstName, String lastName, Integer minAge) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM person WHERE true");
+        List<Object> args = new ArrayList<>();
+        if (firstName != null && !firstName.isBlank()) {
+            sql.append(" AND lower(first_name) LIKE ?");
+            args.add(firstName);
+        }
+        if (lastName != null && !lastName.isBlank()) {
+            sql.append(" AND lower(first_name) LIKE ?");
+            args.add(lastName);
+        }
+        if (minAge != null) {
+            sql.append(" AND date_of_birth <= ?");
+            args.add(Date.valueOf(LocalDate.now().minusYears(minAge)));
+        }
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, args.toArray());
+        return planRows(plan);
+    }
+
+    // Top-level "Plan Rows" of a JSON plan; the plan is small, so a scan beats a JSON parse here
+    private static long planRows(String plan) {
+        int key = plan == null ? -1 : plan.indexOf("\"Plan Rows\":");
+        if (key < 0) {
+            return -1;
+        }
+        int start = key + "\"Plan Rows\":".length();
+        while (start < plan.length() && Character.isWhitespace(plan.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < plan.length() && (Character.isDigit(plan.charAt(end)) || plan.charAt(end) == '.')) {
+            end++;
+        }
+        return end > start ? (long) Double.parseDouble(plan.substring(start, end)) : -1;
+    }
+
+    /**
+     * Streams every person through a server-side cursor. PostgreSQL only honours the fetch size inside a
+     * transaction, so callers must run this in one.
+     */
+    public long streamAll(Consumer<PersonResponseDto> sink) {
+        long count = 0;
+        try (Stream<PersonResponseDto> persons =
+                     streamingJdbcTemplate.queryForStream("SELECT " + PERSON_COLUMNS + " FROM person", PERSON_MAPPER)) {
+            for (PersonResponseDto person : (Iterable<PersonResponseDto>) persons::iterator) {
+                sink.accept(person);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Streams just the tax numbers of all persons; like {@link #streamAll} it must run in a transaction.
+     */
+    public long streamTaxNumbers(Consumer<String> sink) {
+        long count = 0;
+        try (Stream<String> taxNumbers =
+                     streamingJdbcTemplate.queryForStream("SELECT tax_number FROM person",
+                             (rs, rowNum) -> rs.getString(1))) {
+            for (String taxNumber : (Iterable<String>) taxNumbers::iterator) {
+                sink.accept(taxNumber);
+                count++;
+            }
+        }
+        return count;
+    }
+}
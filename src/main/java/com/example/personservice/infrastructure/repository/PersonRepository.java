@@ -3,13 +3,24 @@ package com.example.personservice.infrastructure.repository;
 import com.example.personservice.domain.model.Person;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface PersonRepository extends JpaRepository<Person, UUID>, JpaSpecificationExecutor<Person>{
     Optional<Person> findByTaxNumber(String taxNumber);
     boolean existsByTaxNumber(String taxNumber);
-}
\ No newline at end of file
+
+    @Query("select p.taxNumber from Person p where p.taxNumber in :taxNumbers")
+    Set<String> findExistingTaxNumbers(@Param("taxNumbers") Collection<String> taxNumbers);
+
+    // Planner statistics, not an exact count; -1 when the table has never been analyzed
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('person' AS regclass)", nativeQuery = true)
+    long estimateRowCount();
+}
@@ -0,0 +1,77 @@
+package com.example.personservice.infrastructure.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps the daily partitions of {@code processed_event} in shape: creates the coming days ahead of time and
+ * drops days older than the retention. A redelivery older than the retention is no longer recognised, so the
+ * retention must exceed the longest time a record can wait in Kafka, retries included.
+ */
+@Slf4j
+@Component
+public class ProcessedEventPartitionMaintainer {
+    private final ProcessedEventRepository repository;
+    private final int retentionDays;
+    private final int daysAhead;
+
+    public ProcessedEventPartitionMaintainer(
+            ProcessedEventRepository repository,
+            @Value("${processed-events.retention-days:7}") int retentionDays,
+            @Value("${processed-events.partitions-ahead:3}") int daysAhead
+    ) {
+        this.repository = repository;
+        this.retentionDays = retentionDays;
+        this.daysAhead = daysAhead;
+    }
+
+    @Scheduled(
+            initialDelayString = "${processed-events.initial-delay:0s}",
+            fixedDelayString = "${processed-events.maintenance-interval:1h}"
+    )
+    public void maintain() {
+        LocalDate today = LocalDate.now();
+        try {
+            for (int i = 0; i <= daysAhead; i++) {
+                repository.createPartition(today.plusDays(i));
+            }
+
+            LocalDate oldestKept = today.minusDays(retentionDays);
+            int dropped = 0;
+            for (String name : repository.findPartitionNames()) {
+                LocalDate day = partitionDay(name);
+                if (day != null && day.isBefore(oldestKept)) {
+                    repository.dropPartition(day);
+                    dropped++;
+                }
+            }
+            int purged = repository.deleteFromDefaultPartitionBefore(oldestKept.atStartOfDay());
+
+            if (dropped > 0 || purged > 0) {
+                log.info("[ProcessedEvents] Dropped {} partitions and {} default-partition rows older than {}",
+                        dropped, purged, oldestKept);
+            }
+        } catch (DataAccessException ex) {
+            // e.g. the default partition already holds rows for a day that is being created
+            log.warn("[ProcessedEvents] Partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+
+    private static LocalDate partitionDay(String name) {
+        if (!name.startsWith(ProcessedEventRepository.PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(ProcessedEventRepository.PARTITION_PREFIX.length()),
+                    ProcessedEventRepository.PARTITION_SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
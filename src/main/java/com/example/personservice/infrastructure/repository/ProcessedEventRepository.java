@@ -0,0 +1,103 @@
+package com.example.personservice.infrastructure.repository;
+
+import com.example.personservice.infrastructure.messaging.events.DomainEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Ledger of applied events in the {@code processed_event} table, partitioned by day of {@code occurred_on}.
+ * <p>
+ * Consumers claim events in the transaction that applies them: a claim that returns the event id is the
+ * first application, anything else is a redelivery. Since the claim commits or rolls back together with the
+ * business writes, an event takes effect exactly once however often it is delivered.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProcessedEventRepository {
+
+    static final String PARTITION_PREFIX = "processed_event_p";
+    static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // One round trip for the whole batch; ids that were already recorded are not returned
+    private static final String CLAIM_SQL =
+            "INSERT INTO processed_event (event_id, occurred_on) " +
+            "SELECT * FROM unnest(?::uuid[], ?::timestamp[]) " +
+            "ON CONFLICT DO NOTHING " +
+            "RETURNING event_id";
+
+    /**
+     * Records the events as processed and returns the ids that were not recorded yet. Must run in the
+     * transaction that applies those events.
+     */
+    public Set<UUID> claim(Collection<? extends DomainEvent<?>> events) {
+        if (events.isEmpty()) {
+            return Set.of();
+        }
+        UUID[] ids = new UUID[events.size()];
+        Timestamp[] occurredOn = new Timestamp[events.size()];
+        int i = 0;
+        for (DomainEvent<?> event : events) {
+            ids[i] = event.getEventId();
+            occurredOn[i] = Timestamp.valueOf(event.getOccurredOn() != null ? event.getOccurredOn() : LocalDateTime.now());
+            i++;
+        }
+
+        Set<UUID> claimed = new HashSet<>(events.size() * 2);
+        jdbcTemplate.query(CLAIM_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids));
+                    ps.setArray(2, ps.getConnection().createArrayOf("timestamp", occurredOn));
+                },
+                rs -> {
+                    claimed.add(rs.getObject(1, UUID.class));
+                });
+        return claimed;
+    }
+
+    public boolean claim(DomainEvent<?> event) {
+        return !claim(List.of(event)).isEmpty();
+    }
+
+    public List<String> findPartitionNames() {
+        return jdbcTemplate.queryForList(
+                "SELECT child.relname FROM pg_inherits " +
+                "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent " +
+                "JOIN pg_class child ON child.oid = pg_inherits.inhrelid " +
+                "WHERE parent.relname = 'processed_event'",
+                String.class);
+    }
+
+    public void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day) +
+                " PARTITION OF processed_event FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+    }
+
+    /**
+     * Drops a whole day at once, which is far cheaper than deleting its rows.
+     */
+    public void dropPartition(LocalDate day) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(day));
+    }
+
+    // Only events older than the created partitions land in the default one, so this stays small
+    public int deleteFromDefaultPartitionBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM processed_event_default WHERE occurred_on < ?", Timestamp.valueOf(cutoff));
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.personservice.infrastructure.web;
+
+import com.example.personservice.application.dto.admin.ExportJobStatusDto;
+import com.example.personservice.application.dto.admin.ImportJobStatusDto;
+import com.example.personservice.application.service.PersonExportService;
+import com.example.personservice.application.service.PersonImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+    private final PersonImportService importService;
+    private final PersonExportService exportService;
+
+    public AdminController(PersonImportService importService, PersonExportService exportService) {
+        this.importService = importService;
+        this.exportService = exportService;
+    }
+
+    @PostMapping("/import/person")
+    public ResponseEntity<ImportJobStatusDto> startPersonImport(
+            @RequestParam String file,
+            @RequestParam(defaultValue = "false") boolean restart
+    ) {
+        ImportJobStatusDto status = importService.startImport(file, restart);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/import/person/{jobId}")
+    public ResponseEntity<ImportJobStatusDto> getPersonImport(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(importService.getStatus(jobId));
+    }
+
+    @PostMapping("/export/person")
+    public ResponseEntity<ExportJobStatusDto> startPersonExport(
+            @RequestParam(defaultValue = "4") int partitions
+    ) {
+        ExportJobStatusDto status = exportService.startExport(partitions);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/export/person/{jobId}")
+    public ResponseEntity<ExportJobStatusDto> getPersonExport(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(exportService.getStatus(jobId));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.personservice.infrastructure.web;
+
+/**
+ * Strong ETags for single-record responses. A person body changes when its row version changes or when
+ * the person has a birthday (age is derived), so both go into the tag; the tax-debt body only depends on
+ * the version. Smile and JSON bodies get different tags because they are different byte sequences.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String person(long version, int age, ResponseFormat format) {
+        return "\"p" + version + "." + age + format.getETagSuffix() + "\"";
+    }
+
+    static String taxDebt(long version, ResponseFormat format) {
+        return "\"t" + version + format.getETagSuffix() + "\"";
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.personservice.infrastructure.web;
+
+import com.example.personservice.application.dto.operation.OperationStatusDto;
+import com.example.personservice.infrastructure.messaging.redis.OperationTracker;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/operations")
+@Validated
+public class OperationController {
+    private final OperationTracker tracker;
+
+    public OperationController(OperationTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * Status of an asynchronous write. With {@code waitMs} the request is held (without a thread) until
+     * the operation is applied or failed, or until the wait runs out, whichever comes first.
+     */
+    @GetMapping("/{eventId}")
+    public DeferredResult<ResponseEntity<OperationStatusDto>> getStatus(
+            @PathVariable UUID eventId,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(30000) long waitMs
+    ) {
+        OperationStatusDto.Status current = tracker.getStatus(eventId);
+
+        DeferredResult<ResponseEntity<OperationStatusDto>> result = new DeferredResult<>(Math.max(waitMs, 1));
+        if (waitMs == 0 || current.isTerminal()) {
+            result.setResult(ResponseEntity.ok(new OperationStatusDto(eventId, current)));
+            return result;
+        }
+
+        result.onTimeout(() -> result.setResult(ResponseEntity.ok(new OperationStatusDto(eventId, tracker.getStatus(eventId)))));
+        tracker.awaitTerminal(eventId)
+                .thenAccept(status -> result.setResult(ResponseEntity.ok(new OperationStatusDto(eventId, status))));
+        return result;
+    }
+}
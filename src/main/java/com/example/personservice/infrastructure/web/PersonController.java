@@ -1,23 +1,47 @@
 package com.example.personservice.infrastructure.web;
 
+import com.example.personservice.application.dto.bulk.BulkIngestResponseDto;
 import com.example.personservice.application.dto.person.OperationResponseDto;
+import com.example.personservice.application.dto.person.PersonCursorPageResponseDto;
+import com.example.personservice.application.dto.person.PersonLookupRequestDto;
+import com.example.personservice.application.dto.person.PersonLookupResultDto;
 import com.example.personservice.application.service.PersonService;
 import com.example.personservice.application.dto.person.CreatePersonRequestDto;
 import com.example.personservice.application.dto.person.PersonResponseDto;
 import com.example.personservice.application.dto.person.UpdatePersonRequestDto;
 import com.example.personservice.infrastructure.validation.validator.ValidTaxNumber;
+import com.example.personservice.infrastructure.web.admission.AdmissionControlled;
+import com.example.personservice.infrastructure.web.admission.AdmissionPriority;
+import com.example.personservice.infrastructure.web.idempotency.IdempotencyStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -25,27 +49,100 @@ import java.util.UUID;
 @Validated
 @Slf4j
 public class PersonController {
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     private final PersonService service;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter streamWriter;
+    private final ResponseBytesCache responseBytes;
+    private final IdempotencyStore idempotencyStore;
 
-    public PersonController(PersonService service) {
+    public PersonController(
+            PersonService service,
+            ObjectMapper objectMapper,
+            ResponseBytesCache responseBytes,
+            IdempotencyStore idempotencyStore
+    ) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.responseBytes = responseBytes;
+        this.idempotencyStore = idempotencyStore;
+        // flushing is done in chunks by the stream itself, not after every record
+        this.streamWriter = objectMapper.writerFor(PersonResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping
+    @AdmissionControlled
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<OperationResponseDto> createPerson(
+            @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 255) String idempotencyKey,
             @Valid @RequestBody CreatePersonRequestDto request
     ) {
-        OperationResponseDto response = service.createPerson(request);
+        OperationResponseDto response = idempotencyStore.execute("POST /person", idempotencyKey, request,
+                OperationResponseDto.class, () -> service.createPerson(request));
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @AdmissionControlled(priority = AdmissionPriority.LOW, sampleLatency = false)
+    public ResponseEntity<BulkIngestResponseDto> bulkCreatePersons(InputStream body) {
+        BulkIngestResponseDto response = service.bulkCreatePersons(body);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     public ResponseEntity<List<PersonResponseDto>> getAll() {
         List<PersonResponseDto> persons = service.findAll();
         return ResponseEntity.ok(persons);
     }
 
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamAll(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        boolean ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+        MediaType contentType = ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+
+        StreamingResponseBody body = out -> writePersons(out, ndjson);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    private void writePersons(OutputStream out, boolean ndjson) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        if (!ndjson) {
+            generator.writeStartArray();
+        }
+
+        long[] written = {0};
+        try {
+            service.streamAll(person -> {
+                try {
+                    streamWriter.writeValue(generator, person);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                    if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            // The client disconnected; the service has already closed the cursor
+            log.debug("Person stream aborted after {} records: {}", written[0], ex.getMessage());
+            throw ex.getCause();
+        }
+
+        if (!ndjson) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Page<PersonResponseDto>> searchPerson(
             @RequestParam(required = false) String firstNamePrefix,
@@ -61,24 +158,95 @@ public class PersonController {
         return ResponseEntity.ok(persons);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<PersonResponseDto> getPersonById(
-            @PathVariable UUID id
+    @GetMapping("/search/cursor")
+    public ResponseEntity<PersonCursorPageResponseDto> searchPersonByCursor(
+            @RequestParam(required = false) String firstNamePrefix,
+            @RequestParam(required = false) String lastNamePrefix,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size,
+            @RequestParam(defaultValue = "false") boolean includeEstimate) {
+        PersonCursorPageResponseDto page = service.findByNameAndAgeAfter(
+                firstNamePrefix,
+                lastNamePrefix,
+                minAge,
+                size,
+                cursor,
+                includeEstimate
+        );
+        return ResponseEntity.ok(page);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<List<PersonLookupResultDto>> lookup(
+            @Valid @RequestBody PersonLookupRequestDto request
     ) {
+        List<PersonLookupResultDto> results = service.lookup(request);
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getPersonById(
+            @PathVariable UUID id,
+            WebRequest request
+    ) throws HttpMediaTypeNotAcceptableException {
+        ResponseFormat format = ResponseFormat.of(request);
+
+        // answer polling clients from the version alone, without loading and serializing the person
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = service.findVersionById(id)
+                    .map(version -> ETags.person(version.getVersion(), version.getAge(), format));
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                return null;
+            }
+        }
+
         PersonResponseDto person = service.findById(id);
-        return ResponseEntity.ok(person);
+        String eTag = ETags.person(person.getVersion(), person.getAge(), format);
+        byte[] body = responseBytes.bytes(ResponseBytesCache.PERSON, "id:" + id, format, eTag, person);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(format.getMediaType())
+                .body(body);
     }
 
     @GetMapping("/tax/{taxNumber}")
-    public ResponseEntity<PersonResponseDto> getByTaxNumber(
+    public ResponseEntity<byte[]> getByTaxNumber(
             @PathVariable
-            @ValidTaxNumber String taxNumber
-    ) {
+            @ValidTaxNumber String taxNumber,
+            WebRequest request
+    ) throws HttpMediaTypeNotAcceptableException {
+        ResponseFormat format = ResponseFormat.of(request);
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = service.findVersionByTaxNumber(taxNumber)
+                    .map(version -> ETags.person(version.getVersion(), version.getAge(), format));
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                return null;
+            }
+        }
+
         PersonResponseDto person = service.findByTaxNumber(taxNumber);
-        return ResponseEntity.ok(person);
+        String eTag = ETags.person(person.getVersion(), person.getAge(), format);
+        byte[] body = responseBytes.bytes(ResponseBytesCache.PERSON, "tax:" + taxNumber, format, eTag, person);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+
+    /**
+     * Existence check without a body; most unknown tax numbers are answered from memory.
+     */
+    @RequestMapping(value = "/tax/{taxNumber}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> existsByTaxNumber(@PathVariable @ValidTaxNumber String taxNumber) {
+        return service.existsByTaxNumber(taxNumber)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
     }
 
     @PutMapping("/{id}")
+    @AdmissionControlled
     public ResponseEntity<OperationResponseDto> updatePerson(
             @PathVariable UUID id,
             @Valid @RequestBody UpdatePersonRequestDto request) {
@@ -88,6 +256,7 @@ public class PersonController {
     }
 
     @DeleteMapping("/{id}")
+    @AdmissionControlled(priority = AdmissionPriority.HIGH)
     public ResponseEntity<OperationResponseDto> deletePerson(@PathVariable UUID id) {
         OperationResponseDto response = service.deletePerson(id);
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
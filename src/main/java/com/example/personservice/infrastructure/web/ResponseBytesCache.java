@@ -0,0 +1,85 @@
+package com.example.personservice.infrastructure.web;
+
+import com.example.personservice.infrastructure.cache.PersonCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Serialized bodies of the single-record endpoints, so a hot record is written straight from a byte array
+ * instead of going through Jackson on every request. Entries are keyed by representation, format and
+ * lookup key and remember the ETag they were serialized for; a different ETag (new version or age)
+ * re-serializes. Entries are also dropped whenever {@link PersonCache} evicts the person.
+ */
+@Component
+class ResponseBytesCache {
+    static final String PERSON = "person";
+    static final String TAX_DEBT = "tax-debt";
+
+    private final JsonMapper jsonMapper;
+    private final SmileMapper smileMapper;
+    private final Cache<String, Entry> cache;
+
+    ResponseBytesCache(
+            JsonMapper jsonMapper,
+            SmileMapper smileMapper,
+            PersonCache personCache,
+            MeterRegistry meterRegistry,
+            @Value("${response-bytes-cache.max-bytes:33554432}") long maxBytes
+    ) {
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, Entry>weigher((key, entry) -> key.length() + entry.bytes.length)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "person.response-bytes");
+        personCache.addEvictionListener(this::evict);
+    }
+
+    /**
+     * Returns the body of {@code value} in the given format, serializing it only when no entry exists
+     * for this representation and key with the same ETag. {@code lookupKey} is {@code id:<uuid>} or
+     * {@code tax:<taxNumber>}.
+     */
+    byte[] bytes(String representation, String lookupKey, ResponseFormat format, String eTag, Object value) {
+        String key = representation + ':' + format.name() + ':' + lookupKey;
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.eTag.equals(eTag)) {
+            return cached.bytes;
+        }
+
+        byte[] bytes = format == ResponseFormat.SMILE ? smileMapper.writeValueAsBytes(value) : jsonMapper.writeValueAsBytes(value);
+        cache.put(key, new Entry(eTag, bytes));
+        return bytes;
+    }
+
+    private void evict(String id, String taxNumber) {
+        for (ResponseFormat format : ResponseFormat.values()) {
+            if (id != null) {
+                cache.invalidate(PERSON + ':' + format.name() + ":id:" + id);
+            }
+            if (taxNumber != null) {
+                cache.invalidate(PERSON + ':' + format.name() + ":tax:" + taxNumber);
+                cache.invalidate(TAX_DEBT + ':' + format.name() + ":tax:" + taxNumber);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String eTag;
+        private final byte[] bytes;
+
+        private Entry(String eTag, byte[] bytes) {
+            this.eTag = eTag;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.personservice.infrastructure.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * Body formats of the single-record endpoints. Smile is chosen whenever the client lists it in Accept at
+ * least as highly as JSON, JSON otherwise; a request that accepts neither is rejected with 406.
+ */
+enum ResponseFormat {
+    JSON(MediaType.APPLICATION_JSON, ""),
+    SMILE(MediaType.valueOf("application/x-jackson-smile"), ".s");
+
+    private static final List<MediaType> SUPPORTED = List.of(JSON.mediaType, SMILE.mediaType);
+
+    private final MediaType mediaType;
+    private final String eTagSuffix;
+
+    ResponseFormat(MediaType mediaType, String eTagSuffix) {
+        this.mediaType = mediaType;
+        this.eTagSuffix = eTagSuffix;
+    }
+
+    static ResponseFormat of(WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            throw new HttpMediaTypeNotAcceptableException(SUPPORTED);
+        }
+        // wildcards only ever select JSON; Smile must be asked for by name
+        double json = 0;
+        double smile = 0;
+        for (MediaType type : accepted) {
+            if (type.includes(JSON.mediaType)) {
+                json = Math.max(json, type.getQualityValue());
+            }
+            if (type.isConcrete() && type.isCompatibleWith(SMILE.mediaType)) {
+                smile = Math.max(smile, type.getQualityValue());
+            }
+        }
+
+        if (smile > 0 && smile >= json) {
+            return SMILE;
+        }
+        if (json > 0) {
+            return JSON;
+        }
+        throw new HttpMediaTypeNotAcceptableException(SUPPORTED);
+    }
+
+    MediaType getMediaType() {
+        return mediaType;
+    }
+
+    String getETagSuffix() {
+        return eTagSuffix;
+    }
+}
@@ -1,17 +1,32 @@
 package com.example.personservice.infrastructure.web;
 
+import com.example.personservice.application.dto.bulk.BulkIngestResponseDto;
 import com.example.personservice.application.dto.person.OperationResponseDto;
+import com.example.personservice.application.dto.tax.TaxLookupRequestDto;
+import com.example.personservice.application.dto.tax.TaxLookupResultDto;
 import com.example.personservice.application.dto.tax.TaxRequestDto;
 import com.example.personservice.application.dto.tax.TaxResponseDto;
 import com.example.personservice.application.service.TaxService;
 import com.example.personservice.infrastructure.validation.validator.ValidTaxNumber;
+import com.example.personservice.infrastructure.web.admission.AdmissionControlled;
+import com.example.personservice.infrastructure.web.admission.AdmissionPriority;
+import com.example.personservice.infrastructure.web.idempotency.IdempotencyStore;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -19,23 +34,59 @@ import jakarta.validation.Valid;
 @Validated
 public class TaxController {
     private final TaxService service;
+    private final ResponseBytesCache responseBytes;
+    private final IdempotencyStore idempotencyStore;
 
-    public TaxController(TaxService service) {
+    public TaxController(TaxService service, ResponseBytesCache responseBytes, IdempotencyStore idempotencyStore) {
         this.service = service;
+        this.responseBytes = responseBytes;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @GetMapping("/debt/{taxNumber}")
-    public ResponseEntity<TaxResponseDto> getTaxDebt(@PathVariable @ValidTaxNumber String taxNumber) {
+    public ResponseEntity<byte[]> getTaxDebt(@PathVariable @ValidTaxNumber String taxNumber, WebRequest request)
+            throws HttpMediaTypeNotAcceptableException {
+        ResponseFormat format = ResponseFormat.of(request);
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = service.findTaxDebtVersion(taxNumber)
+                    .map(version -> ETags.taxDebt(version, format));
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                return null;
+            }
+        }
+
         TaxResponseDto response = service.getTaxDebt(taxNumber);
-        return ResponseEntity.ok(response);
+        String eTag = ETags.taxDebt(response.getVersion(), format);
+        byte[] body = responseBytes.bytes(ResponseBytesCache.TAX_DEBT, "tax:" + taxNumber, format, eTag, response);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+
+    @PostMapping("/debt/lookup")
+    public ResponseEntity<List<TaxLookupResultDto>> lookupTaxDebts(@RequestBody @Valid TaxLookupRequestDto request) {
+        List<TaxLookupResultDto> results = service.lookupTaxDebts(request.getTaxNumbers());
+        return ResponseEntity.ok(results);
     }
 
     @PostMapping("/debt/{taxNumber}")
+    @AdmissionControlled(priority = AdmissionPriority.HIGH)
     public ResponseEntity<OperationResponseDto> handleTaxCalculation(
             @PathVariable @ValidTaxNumber String taxNumber,
+            @RequestHeader(value = "Idempotency-Key", required = false) @Size(max = 255) String idempotencyKey,
             @RequestBody @Valid TaxRequestDto request
     ) {
-        OperationResponseDto response = service.handleTaxCalculation(taxNumber, request.getAmount());
+        OperationResponseDto response = idempotencyStore.execute("POST /tax/debt/" + taxNumber, idempotencyKey, request,
+                OperationResponseDto.class, () -> service.handleTaxCalculation(taxNumber, request.getAmount()));
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
+
+    @PostMapping(value = "/debt/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @AdmissionControlled(priority = AdmissionPriority.LOW, sampleLatency = false)
+    public ResponseEntity<BulkIngestResponseDto> bulkAddTaxDebt(InputStream body) {
+        BulkIngestResponseDto response = service.bulkAddTaxDebt(body);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,79 @@
+package com.example.personservice.infrastructure.web.admission;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD concurrency limit. Every request that completes within the target latency while the limit is
+ * at least half used grows the limit by {@code 1/limit} (roughly +1 per round of requests); a slow or
+ * failed request multiplies it by the backoff ratio, at most once per target-latency window so that a
+ * burst of slow responses from the same congestion episode does not collapse the limit to the minimum.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Decision { ACCEPTED, SHED, LIMITED }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+    private double smoothedLatencyNanos;
+
+    public AdaptiveConcurrencyLimiter(AdmissionControlProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.targetLatencyNanos = properties.getTargetLatency().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+    }
+
+    public synchronized Decision tryAcquire(AdmissionPriority priority) {
+        if (inFlight >= (int) limit) {
+            return Decision.LIMITED;
+        }
+        if (inFlight >= Math.max(1, (int) (limit * priority.getLimitShare()))) {
+            return Decision.SHED;
+        }
+        inFlight++;
+        return Decision.ACCEPTED;
+    }
+
+    /**
+     * Returns a permit. {@code latencyNanos < 0} releases without a sample.
+     */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        int used = inFlight--;
+        if (latencyNanos < 0) {
+            return;
+        }
+
+        smoothedLatencyNanos = smoothedLatencyNanos == 0
+                ? latencyNanos
+                : smoothedLatencyNanos * 0.9 + latencyNanos * 0.1;
+
+        long now = System.nanoTime();
+        if (failed || latencyNanos > targetLatencyNanos) {
+            if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (used * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized double getSmoothedLatencyMillis() {
+        return smoothedLatencyNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.personservice.infrastructure.web.admission;
+
+import com.example.personservice.infrastructure.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admission control for the write endpoints annotated with {@link AdmissionControlled}.
+ * All of them share one adaptive limit because they contend for the same DB pool and Kafka producer.
+ * A request that finds the limit exhausted is rejected before it reaches the controller with 503,
+ * a request shed to protect headroom for higher priorities gets 429; both carry Retry-After.
+ */
+@Slf4j
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+
+    private final AdmissionControlProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlInterceptor(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = new AdaptiveConcurrencyLimiter(properties);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for write endpoints")
+                .register(meterRegistry);
+        Gauge.builder("admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Admitted write requests currently in progress")
+                .register(meterRegistry);
+        Gauge.builder("admission.latency.smoothed", limiter, AdaptiveConcurrencyLimiter::getSmoothedLatencyMillis)
+                .description("Smoothed latency of sampled write requests")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AdmissionControlled admission = admissionOf(handler);
+        if (admission == null || !properties.isEnabled()) {
+            return true;
+        }
+
+        String endpoint = endpointOf((HandlerMethod) handler);
+        AdaptiveConcurrencyLimiter.Decision decision = limiter.tryAcquire(admission.priority());
+        meterRegistry.counter("admission.requests",
+                "endpoint", endpoint,
+                "priority", admission.priority().name(),
+                "outcome", decision.name().toLowerCase()).increment();
+
+        if (decision == AdaptiveConcurrencyLimiter.Decision.ACCEPTED) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            return true;
+        }
+
+        long retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        log.debug("[Admission] {} {} (limit={}, inFlight={})",
+                decision, endpoint, limiter.getLimit(), limiter.getInFlight());
+        if (decision == AdaptiveConcurrencyLimiter.Decision.SHED) {
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                    "Too many concurrent requests, please retry later");
+        }
+        throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds,
+                "Service is overloaded, please retry later");
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        request.removeAttribute(START_ATTRIBUTE);
+
+        AdmissionControlled admission = admissionOf(handler);
+        if (admission == null || !admission.sampleLatency()) {
+            limiter.release(-1, false);
+            return;
+        }
+        boolean failed = ex != null || response.getStatus() >= 500;
+        limiter.release(System.nanoTime() - (long) start, failed);
+    }
+
+    private static AdmissionControlled admissionOf(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getMethodAnnotation(AdmissionControlled.class);
+        }
+        return null;
+    }
+
+    private static String endpointOf(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
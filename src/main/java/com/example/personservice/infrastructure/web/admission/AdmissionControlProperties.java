@@ -0,0 +1,26 @@
+package com.example.personservice.infrastructure.web.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "admission-control")
+public class AdmissionControlProperties {
+    private boolean enabled = true;
+
+    private int initialLimit = 50;
+    private int minLimit = 5;
+    private int maxLimit = 400;
+
+    // requests slower than this count as congestion and shrink the limit
+    private Duration targetLatency = Duration.ofMillis(250);
+    private double backoffRatio = 0.9;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
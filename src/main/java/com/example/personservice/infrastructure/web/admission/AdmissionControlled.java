@@ -0,0 +1,24 @@
+package com.example.personservice.infrastructure.web.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller method behind the shared adaptive concurrency limit (see {@link AdmissionControlInterceptor}).
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionControlled {
+
+    AdmissionPriority priority() default AdmissionPriority.NORMAL;
+
+    /**
+     * Whether the latency of this endpoint drives the limit. Disable for endpoints whose duration
+     * depends on the request size (bulk uploads) rather than on how loaded the backend is.
+     */
+    boolean sampleLatency() default true;
+}
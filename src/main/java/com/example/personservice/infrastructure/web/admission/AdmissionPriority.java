@@ -0,0 +1,21 @@
+package com.example.personservice.infrastructure.web.admission;
+
+/**
+ * Share of the concurrency limit a request may use. Lower priorities are shed first,
+ * leaving headroom for the more important writes while the limit is nearly exhausted.
+ */
+public enum AdmissionPriority {
+    HIGH(1.0),
+    NORMAL(0.8),
+    LOW(0.5);
+
+    private final double limitShare;
+
+    AdmissionPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    public double getLimitShare() {
+        return limitShare;
+    }
+}
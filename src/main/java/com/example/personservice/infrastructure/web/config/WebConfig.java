@@ -0,0 +1,43 @@
+package com.example.personservice.infrastructure.web.config;
+
+import com.example.personservice.infrastructure.web.admission.AdmissionControlInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Lets internal callers ask for {@code application/x-jackson-smile} instead of JSON via the Accept header
+ * (and send Smile request bodies). The mapper mirrors the JSON one in {@code KafkaConfig}: java.time values
+ * are written as ISO strings, so both representations carry the same fields and values.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    public WebConfig(AdmissionControlInterceptor admissionControlInterceptor) {
+        this.admissionControlInterceptor = admissionControlInterceptor;
+    }
+
+    @Bean
+    public SmileMapper smileMapper() {
+        return SmileMapper.builder()
+                .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper()));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor);
+    }
+
+}
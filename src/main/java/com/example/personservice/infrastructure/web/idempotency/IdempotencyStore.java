@@ -0,0 +1,152 @@
+package com.example.personservice.infrastructure.web.idempotency;
+
+import com.example.personservice.infrastructure.exception.IdempotencyConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Replays the original response of a POST that is repeated with the same {@code Idempotency-Key}.
+ * <p>
+ * Requests without the header go straight through. With a key, completed responses are looked up in a
+ * bounded local cache and then in Redis; the first request claims the key with SET NX so concurrent
+ * repeats on other nodes get 409 instead of running twice. Reusing a key for a different request
+ * (other path or body) is also a 409. A failed request releases the key so the client can retry it.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final char SEPARATOR = '|';
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inProgressTtl;
+    private final Cache<String, String> completed;
+
+    public IdempotencyStore(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.in-progress-ttl:1m}") Duration inProgressTtl,
+            @Value("${idempotency.local-max-size:50000}") long localMaxSize
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inProgressTtl = inProgressTtl;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs {@code action} once per {@code idempotencyKey} and {@code scope} within the TTL and returns the
+     * same response for repeats. {@code request} is what identifies the request besides the scope (the body).
+     */
+    public <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        String key = KEY_PREFIX + scope + SEPARATOR + idempotencyKey;
+        String fingerprint = fingerprint(scope, request);
+
+        String stored = completed.getIfPresent(key);
+        if (stored != null) {
+            return replay(stored, fingerprint, responseType, idempotencyKey);
+        }
+
+        if (!claim(key)) {
+            stored = redisTemplate.opsForValue().get(key);
+            if (stored == null || IN_PROGRESS.equals(stored)) {
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+            }
+            completed.put(key, stored);
+            return replay(stored, fingerprint, responseType, idempotencyKey);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            release(key);
+            throw ex;
+        }
+
+        String entry = fingerprint + SEPARATOR + toJson(response);
+        completed.put(key, entry);
+        try {
+            redisTemplate.opsForValue().set(key, entry, ttl);
+        } catch (DataAccessException ex) {
+            log.warn("[Idempotency] Failed to store response for key {}: {}", idempotencyKey, ex.getMessage());
+        }
+        return response;
+    }
+
+    private boolean claim(String key) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, IN_PROGRESS, inProgressTtl));
+        } catch (DataAccessException ex) {
+            // without Redis only the local cache protects against repeats
+            log.warn("[Idempotency] Redis unavailable, falling back to local store: {}", ex.getMessage());
+            return true;
+        }
+    }
+
+    private void release(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException ex) {
+            log.warn("[Idempotency] Failed to release key {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private <T> T replay(String stored, String fingerprint, Class<T> responseType, String idempotencyKey) {
+        int separator = stored.indexOf(SEPARATOR);
+        if (!stored.substring(0, separator).equals(fingerprint)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+        }
+        log.info("[Idempotency] Replaying response for key {}", idempotencyKey);
+        try {
+            return objectMapper.readValue(stored.substring(separator + 1), responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response is not readable", ex);
+        }
+    }
+
+    private String fingerprint(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot fingerprint request", ex);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot store idempotent response", ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.personservice.application.dto.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkIngestResponseDtoTest {
+
+    @Test
+    void listsErrorsUpToTheLimitAndCountsAll() {
+        BulkIngestResponseDto summary = new BulkIngestResponseDto(2);
+
+        summary.addError(new BulkLineResultDto(1, BulkLineResultDto.Status.REJECTED, null, "bad"));
+        summary.addError(new BulkLineResultDto(2, BulkLineResultDto.Status.REJECTED, null, "bad"));
+        assertThat(summary.isTruncated()).isFalse();
+
+        summary.addError(new BulkLineResultDto(3, BulkLineResultDto.Status.FAILED, "TAX3", "failed"));
+
+        assertThat(summary.getErrors()).extracting(BulkLineResultDto::getLine).containsExactly(1L, 2L);
+        assertThat(summary.isTruncated()).isTrue();
+        assertThat(summary.getRejected()).isEqualTo(2);
+        assertThat(summary.getFailed()).isEqualTo(1);
+    }
+}
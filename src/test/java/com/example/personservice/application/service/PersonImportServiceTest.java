@@ -0,0 +1,45 @@
+package com.example.personservice.application.service;
+
+import com.example.personservice.application.dto.person.CreatePersonRequestDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonImportServiceTest {
+
+    @Test
+    void keepsCommasInsideQuotedFields() {
+        CreatePersonRequestDto row = PersonImportService.parseCsv("John,\"Smith, Jr.\",1980-05-17,TAX1");
+
+        assertThat(row).isNotNull();
+        assertThat(row.getFirstName()).isEqualTo("John");
+        assertThat(row.getLastName()).isEqualTo("Smith, Jr.");
+        assertThat(row.getDateOfBirth()).isEqualTo(LocalDate.of(1980, 5, 17));
+        assertThat(row.getTaxNumber()).isEqualTo("TAX1");
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        CreatePersonRequestDto row = PersonImportService.parseCsv("\"Jo \"\"JJ\"\"\", \"O'Neil\" , 1980-05-17 ,\"TAX2\"");
+
+        assertThat(row).isNotNull();
+        assertThat(row.getFirstName()).isEqualTo("Jo \"JJ\"");
+        assertThat(row.getLastName()).isEqualTo("O'Neil");
+        assertThat(row.getTaxNumber()).isEqualTo("TAX2");
+    }
+
+    @Test
+    void readsBackWhatTheChunkBufferWrites() {
+        assertThat(PersonImportService.splitCsv("\"a,\"\"b\"\"\",\"\",1980-05-17,\"T\""))
+                .containsExactly("a,\"b\"", "", "1980-05-17", "T");
+    }
+
+    @Test
+    void rejectsMalformedRows() {
+        assertThat(PersonImportService.parseCsv("John,\"Smith,1980-05-17,TAX1")).isNull();
+        assertThat(PersonImportService.parseCsv("John,\"Smith\"x,1980-05-17,TAX1")).isNull();
+        assertThat(PersonImportService.parseCsv("John,Smith,Jr.,1980-05-17,TAX1")).isNull();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.personservice.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("TAX" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("TAX" + i)).as("TAX%d", i).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheRequestedRateAtCapacity() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("TAX" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("OTHER" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void isSizedFromCapacityAndRate() {
+        BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+        // about 9.6 bits per entry for 1%
+        assertThat(filter.sizeInBytes()).isBetween(1_150_000L, 1_250_000L);
+        assertThat(filter.capacity()).isEqualTo(1_000_000);
+    }
+
+    @Test
+    void keepsEveryConcurrentPut() throws Exception {
+        BloomFilter filter = BloomFilter.create(80_000, 0.01);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                puts.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        filter.put(thread + ":" + i);
+                    }
+                }));
+            }
+            for (Future<?> put : puts) {
+                put.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertThat(filter.mightContain(t + ":" + i)).isTrue();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.personservice.infrastructure.messaging.kafka.consumers;
+
+import com.example.personservice.domain.model.Person;
+import com.example.personservice.infrastructure.messaging.events.PersonDelta;
+import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonEventCoalescerTest {
+
+    private static final String TAX_NUMBER = "TAX1";
+
+    private long offset;
+
+    @Test
+    void groupsUpdatesAndOneDeleteBehindTheirHead() {
+        List<ConsumerRecord<String, PersonEvent>> records = records(
+                event(PersonEvent.EventType.CREATE, "a"),
+                event(PersonEvent.EventType.UPDATE, "b"),
+                event(PersonEvent.EventType.DELETE, "b"),
+                event(PersonEvent.EventType.UPDATE, "c"),
+                event(PersonEvent.EventType.CREATE, "d"),
+                event(PersonEvent.EventType.UPDATE, "e"));
+
+        List<List<ConsumerRecord<String, PersonEvent>>> groups = PersonEventCoalescer.group(records);
+
+        assertThat(groups).extracting(List::size).containsExactly(3, 1, 2);
+    }
+
+    @Test
+    void neverGroupsSimulatedFailuresOrPatches() {
+        PersonEvent patch = new PersonEvent(new PersonDelta(), 1L);
+        List<ConsumerRecord<String, PersonEvent>> records = records(
+                event(PersonEvent.EventType.CREATE, "a"),
+                event(PersonEvent.EventType.UPDATE, "retry"),
+                event(PersonEvent.EventType.UPDATE, "b"),
+                patch,
+                event(PersonEvent.EventType.UPDATE, "c"));
+
+        List<List<ConsumerRecord<String, PersonEvent>>> groups = PersonEventCoalescer.group(records);
+
+        assertThat(groups).extracting(List::size).containsExactly(1, 1, 1, 1, 1);
+    }
+
+    @Test
+    void foldsCreateAndUpdatesKeepingBothApart() {
+        PersonEvent create = event(PersonEvent.EventType.CREATE, "a");
+        PersonEvent update = event(PersonEvent.EventType.UPDATE, "b");
+        PersonEvent latest = event(PersonEvent.EventType.UPDATE, "c");
+
+        PersonEventCoalescer.NetEffect net = PersonEventCoalescer.fold(List.of(create, update, latest));
+
+        assertThat(net.create().getFirstName()).isEqualTo("a");
+        assertThat(net.update().getFirstName()).isEqualTo("c");
+        assertThat(net.delete()).isNull();
+    }
+
+    @Test
+    void createFollowedByDeleteKeepsTheDelete() {
+        PersonEvent create = event(PersonEvent.EventType.CREATE, "a");
+        PersonEvent delete = event(PersonEvent.EventType.DELETE, "a");
+
+        PersonEventCoalescer.NetEffect net = PersonEventCoalescer.fold(List.of(create, delete));
+
+        // whether the pair cancels out depends on the person existing, which only the service knows
+        assertThat(net.create()).isNotNull();
+        assertThat(net.delete()).isSameAs(delete.getPerson());
+    }
+
+    @Test
+    void dropsUpdatesOlderThanTheDataFoldedIn() {
+        PersonEvent stale = event(PersonEvent.EventType.UPDATE, "stale");
+        sleepPastClockTick();
+        PersonEvent create = event(PersonEvent.EventType.CREATE, "a");
+
+        PersonEventCoalescer.NetEffect net = PersonEventCoalescer.fold(List.of(create, stale));
+
+        assertThat(net.create().getFirstName()).isEqualTo("a");
+        assertThat(net.update()).isNull();
+    }
+
+    @Test
+    void foldDoesNotChangeTheEventData() {
+        PersonEvent create = event(PersonEvent.EventType.CREATE, "a");
+        PersonEvent update = event(PersonEvent.EventType.UPDATE, "b");
+
+        PersonEventCoalescer.NetEffect net = PersonEventCoalescer.fold(List.of(create, update));
+        net.create().setFirstName("changed");
+
+        assertThat(create.getPerson().getFirstName()).isEqualTo("a");
+        assertThat(update.getPerson().getFirstName()).isEqualTo("b");
+    }
+
+    private List<ConsumerRecord<String, PersonEvent>> records(PersonEvent... events) {
+        List<ConsumerRecord<String, PersonEvent>> records = new ArrayList<>();
+        for (PersonEvent event : events) {
+            records.add(new ConsumerRecord<>("person.kafka.batch", 0, offset++, TAX_NUMBER, event));
+        }
+        return records;
+    }
+
+    private static PersonEvent event(PersonEvent.EventType type, String firstName) {
+        Person person = new Person();
+        person.setId(UUID.randomUUID());
+        person.setFirstName(firstName);
+        person.setLastName("Doe");
+        person.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        person.setTaxNumber(TAX_NUMBER);
+        return new PersonEvent(type, person);
+    }
+
+    private static void sleepPastClockTick() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
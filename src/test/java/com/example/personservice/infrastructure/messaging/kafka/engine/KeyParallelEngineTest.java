@@ -0,0 +1,229 @@
+package com.example.personservice.infrastructure.messaging.kafka.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyParallelEngineTest {
+
+    private static final String TOPIC = "person.kafka.batch";
+    private static final TopicPartition TP = new TopicPartition(TOPIC, 0);
+
+    private MockConsumer<String, String> consumer;
+    private TestProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>("earliest");
+        consumer.assign(List.of(TP));
+        consumer.updateBeginningOffsets(Map.of(TP, 0L));
+        processor = new TestProcessor();
+    }
+
+    @Test
+    void commitsUpToTheFirstUnfinishedRecord() {
+        KeyParallelEngine<Void, String> engine = engine(Runnable::run, record -> 0, Long.MAX_VALUE);
+        CompletableFuture<Void> parked = processor.park(1);
+
+        engine.accept(List.of(record(0, "A"), record(1, "B"), record(2, "A")), consumer);
+        engine.maintain(consumer);
+
+        // B holds its partition's commits back, but not the other key
+        assertThat(processor.processed).containsExactlyInAnyOrder(0L, 1L, 2L);
+        assertThat(committed()).isEqualTo(1);
+
+        parked.complete(null);
+        engine.maintain(consumer);
+
+        assertThat(committed()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsLaterRecordsOfAParkedKeyInOrder() {
+        KeyParallelEngine<Void, String> engine = engine(Runnable::run, record -> 0, Long.MAX_VALUE);
+        CompletableFuture<Void> parked = processor.park(0);
+
+        engine.accept(List.of(record(0, "A"), record(1, "A"), record(2, "B")), consumer);
+
+        assertThat(processor.processed).containsExactly(0L, 2L);
+
+        parked.complete(null);
+
+        assertThat(processor.processed).containsExactly(0L, 2L, 1L);
+    }
+
+    @Test
+    void rewindsAFailedPartitionToItsWatermark() {
+        KeyParallelEngine<Void, String> engine = engine(Runnable::run, record -> 0, Long.MAX_VALUE);
+        processor.fail(1);
+
+        engine.accept(List.of(record(0, "A"), record(1, "B"), record(2, "C")), consumer);
+        engine.maintain(consumer);
+
+        // C was queued behind the failure, so it is skipped rather than processed out of order
+        assertThat(processor.processed).containsExactly(0L, 1L);
+        assertThat(committed()).isEqualTo(1);
+        assertThat(consumer.position(TP)).isEqualTo(1);
+
+        // the redelivery is processed again from the failed record
+        processor.failures.clear();
+        engine.accept(List.of(record(1, "B"), record(2, "C")), consumer);
+        engine.maintain(consumer);
+
+        assertThat(processor.processed).containsExactly(0L, 1L, 1L, 2L);
+        assertThat(committed()).isEqualTo(3);
+    }
+
+    @Test
+    void holdsBackAPartitionUntilItsHeadIsDue() throws InterruptedException {
+        long due = System.currentTimeMillis() + 200;
+        KeyParallelEngine<Void, String> engine = engine(Runnable::run,
+                record -> record.offset() == 1 ? due : 0, Long.MAX_VALUE);
+
+        engine.accept(List.of(record(0, "A"), record(1, "B"), record(2, "C")), consumer);
+
+        assertThat(processor.processed).containsExactly(0L);
+        assertThat(consumer.position(TP)).isEqualTo(1);
+        assertThat(consumer.paused()).containsExactly(TP);
+        engine.maintain(consumer);
+        assertThat(consumer.paused()).containsExactly(TP);
+
+        Thread.sleep(Math.max(0, due - System.currentTimeMillis()) + 50);
+        engine.maintain(consumer);
+
+        assertThat(consumer.paused()).isEmpty();
+        engine.accept(List.of(record(1, "B"), record(2, "C")), consumer);
+        assertThat(processor.processed).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void pausesWhileParkedRecordsTakeTooMuchMemory() {
+        // every record without serialized sizes counts as 64 bytes
+        KeyParallelEngine<Void, String> engine = engine(Runnable::run, record -> 0, 100);
+        CompletableFuture<Void> first = processor.park(0);
+        CompletableFuture<Void> second = processor.park(1);
+
+        engine.accept(List.of(record(0, "A"), record(1, "B")), consumer);
+
+        assertThat(consumer.paused()).containsExactly(TP);
+
+        first.complete(null);
+        second.complete(null);
+        engine.maintain(consumer);
+
+        assertThat(consumer.paused()).isEmpty();
+    }
+
+    @Test
+    void commitsFinishedRecordsOfRevokedPartitionsAndDropsTheRest() {
+        KeyParallelEngine<Void, String> engine = engine(Runnable::run, record -> 0, Long.MAX_VALUE);
+        CompletableFuture<Void> parked = processor.park(1);
+
+        engine.accept(List.of(record(0, "A"), record(1, "B")), consumer);
+        engine.onRevoked(consumer, List.of(TP));
+
+        assertThat(committed()).isEqualTo(1);
+
+        // completing after the revoke changes nothing; the new owner redelivers from offset 1
+        parked.complete(null);
+        engine.maintain(consumer);
+        assertThat(committed()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsQueuedRecordsOfALostPartition() {
+        List<Runnable> queued = new ArrayList<>();
+        KeyParallelEngine<Void, String> engine = engine(queued::add, record -> 0, Long.MAX_VALUE);
+
+        engine.accept(List.of(record(0, "A")), consumer);
+        engine.onLost(List.of(TP));
+        queued.forEach(Runnable::run);
+
+        assertThat(processor.processed).isEmpty();
+    }
+
+    @Test
+    void restartsRejectedKeysFromTheConsumerThread() {
+        AtomicInteger rejections = new AtomicInteger(1);
+        Executor saturated = task -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException("saturated");
+            }
+            task.run();
+        };
+        KeyParallelEngine<Void, String> engine = engine(saturated, record -> 0, Long.MAX_VALUE);
+
+        engine.accept(List.of(record(0, "A")), consumer);
+        assertThat(processor.processed).isEmpty();
+
+        engine.maintain(consumer);
+        assertThat(processor.processed).containsExactly(0L);
+    }
+
+    private KeyParallelEngine<Void, String> engine(
+            Executor executor,
+            ToLongFunction<ConsumerRecord<?, ?>> dueAt,
+            long maxParkedBytes
+    ) {
+        return new KeyParallelEngine<>("test", processor, executor, dueAt, maxParkedBytes, new SimpleMeterRegistry());
+    }
+
+    private long committed() {
+        OffsetAndMetadata offset = consumer.committed(Set.of(TP)).get(TP);
+        return offset == null ? -1 : offset.offset();
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, key, key + "@" + offset);
+    }
+
+    private static final class TestProcessor implements KeyProcessor<Void, String> {
+        private final List<Long> processed = new CopyOnWriteArrayList<>();
+        private final Map<Long, CompletableFuture<Void>> parked = new HashMap<>();
+        private final Set<Long> failures = ConcurrentHashMap.newKeySet();
+
+        CompletableFuture<Void> park(long offset) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            parked.put(offset, future);
+            return future;
+        }
+
+        void fail(long offset) {
+            failures.add(offset);
+        }
+
+        @Override
+        public Void open(String key) {
+            return null;
+        }
+
+        @Override
+        public CompletionStage<Void> process(String key, Void state, ConsumerRecord<String, String> record) {
+            processed.add(record.offset());
+            if (failures.contains(record.offset())) {
+                return CompletableFuture.failedFuture(new IllegalStateException("failed " + record.offset()));
+            }
+            return parked.getOrDefault(record.offset(), CompletableFuture.completedFuture(null));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.personservice.infrastructure.messaging.kafka.retry;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.ConfluentKafkaContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class DelayedDeliveryTest {
+
+    private static final String TOPIC = "person.kafka-retry-1";
+
+    @Container
+    private static final ConfluentKafkaContainer KAFKA = new ConfluentKafkaContainer("confluentinc/cp-kafka:7.5.0");
+
+    private final DelayedDelivery delayedDelivery = new DelayedDelivery();
+
+    @Test
+    void holdsBackOnlyThePartitionOfARecordThatIsNotDue() throws Exception {
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA.getBootstrapServers()))) {
+            admin.createTopics(List.of(new NewTopic(TOPIC, 2, (short) 1))).all().get();
+        }
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA.getBootstrapServers(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class))) {
+            producer.send(retry(0, "late", 2_000)).get();
+            producer.send(retry(0, "behind-late", 0)).get();
+            producer.send(retry(1, "due", 0)).get();
+        }
+
+        List<String> processed = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        long lateProcessedAfter = -1;
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KAFKA.getBootstrapServers(),
+                ConsumerConfig.GROUP_ID_CONFIG, "delayed-delivery-test",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class))) {
+            consumer.subscribe(List.of(TOPIC));
+            while (processed.size() < 3 && System.currentTimeMillis() - start < 30_000) {
+                var records = consumer.poll(Duration.ofMillis(100));
+                if (records.isEmpty()) {
+                    // what the container's idle events do
+                    delayedDelivery.resumeDue(consumer);
+                }
+                for (ConsumerRecord<String, String> record : records) {
+                    if (delayedDelivery.deferIfNotDue(record, consumer)) {
+                        continue;
+                    }
+                    processed.add(record.value());
+                    if (record.value().equals("late")) {
+                        lateProcessedAfter = System.currentTimeMillis() - start;
+                    }
+                }
+            }
+            assertThat(consumer.paused()).doesNotContain(new TopicPartition(TOPIC, 0));
+        }
+
+        // the due record on the other partition does not wait, the partition of the late one keeps its order
+        assertThat(processed).containsExactly("due", "late", "behind-late");
+        assertThat(lateProcessedAfter).isGreaterThanOrEqualTo(1_500);
+    }
+
+    private static ProducerRecord<String, String> retry(int partition, String value, long delayMillis) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(TOPIC, partition, value, value);
+        DelayedDelivery.setDelay(record.headers(), delayMillis);
+        return record;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.personservice.infrastructure.messaging.redis;
+
+import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventIdempotencyStoreTest {
+
+    @Test
+    void fallsBackToLocallyKnownIdsWhenRedisIsDown() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EventIdempotencyStore store = new EventIdempotencyStore(redisTemplate, Duration.ofHours(24), 1_000, meterRegistry);
+
+        PersonEvent applied = new PersonEvent(PersonEvent.EventType.CREATE, null);
+        PersonEvent fresh = new PersonEvent(PersonEvent.EventType.UPDATE, null);
+        store.markProcessed(List.of(applied));
+
+        assertThat(store.findProcessed(List.of(applied, fresh))).containsExactly(applied.getEventId());
+        assertThat(store.findProcessed(List.of(fresh))).isEmpty();
+        assertThat(store.findProcessed(List.of(applied))).containsExactly(applied.getEventId());
+        // the failed mark and the two checks with unknown ids; the last one never reached Redis
+        assertThat(meterRegistry.counter("event.idempotency.redis.errors").count()).isEqualTo(3);
+    }
+}
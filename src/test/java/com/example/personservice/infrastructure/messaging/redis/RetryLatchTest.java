@@ -0,0 +1,107 @@
+package com.example.personservice.infrastructure.messaging.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetryLatchTest {
+
+    private static final String TAX_NUMBER = "TAX1";
+    private static final String SIGNAL_KEY = "kafka:retry:signal:" + TAX_NUMBER;
+
+    private StringRedisTemplate redisTemplate;
+    private ListOperations<String, String> lists;
+    private RetryLatch latch;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        lists = mock(ListOperations.class);
+        when(redisTemplate.opsForList()).thenReturn(lists);
+        latch = new RetryLatch(redisTemplate);
+    }
+
+    @Test
+    void returnsASignalSentBeforeWaiting() {
+        when(lists.leftPop(SIGNAL_KEY)).thenReturn("DLT");
+
+        CompletableFuture<RetryLatch.RetryStatus> result = latch.awaitResult(TAX_NUMBER, Duration.ofSeconds(5), Runnable::run);
+
+        assertThat(result).isCompletedWithValue(RetryLatch.RetryStatus.DLT);
+    }
+
+    @Test
+    void completesFromALocalNotification() throws Exception {
+        CompletableFuture<RetryLatch.RetryStatus> result = latch.awaitResult(TAX_NUMBER, Duration.ofSeconds(5), Runnable::run);
+        assertThat(result).isNotDone();
+
+        latch.notifyResult(TAX_NUMBER, RetryLatch.RetryStatus.SUCCESS);
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo(RetryLatch.RetryStatus.SUCCESS);
+        // the waiter was local, so only the retrying flag is cleared
+        verify(redisTemplate).delete("kafka:retry:flag:" + TAX_NUMBER);
+    }
+
+    @Test
+    void completesFromAPublishedSignal() throws Exception {
+        CompletableFuture<RetryLatch.RetryStatus> result = latch.awaitResult(TAX_NUMBER, Duration.ofSeconds(5), Runnable::run);
+
+        latch.onSignalMessage(TAX_NUMBER + "|DLT");
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo(RetryLatch.RetryStatus.DLT);
+    }
+
+    @Test
+    void ignoresMalformedAndForeignSignals() {
+        CompletableFuture<RetryLatch.RetryStatus> result = latch.awaitResult(TAX_NUMBER, Duration.ofSeconds(5), Runnable::run);
+
+        latch.onSignalMessage("no-separator");
+        latch.onSignalMessage("TAX2|SUCCESS");
+
+        assertThat(result).isNotDone();
+    }
+
+    @Test
+    void timesOutWithoutHoldingAThread() throws Exception {
+        CompletableFuture<RetryLatch.RetryStatus> result = latch.awaitResult(TAX_NUMBER, Duration.ofMillis(50), Runnable::run);
+
+        assertThat(result.get(2, TimeUnit.SECONDS)).isEqualTo(RetryLatch.RetryStatus.TIMEOUT);
+    }
+
+    @Test
+    void recoversASignalMissedUntilTheTimeout() throws Exception {
+        // nothing listed when the wait starts, the signal is found when it times out
+        when(lists.leftPop(anyString())).thenReturn(null, "SUCCESS");
+
+        CompletableFuture<RetryLatch.RetryStatus> result = latch.awaitResult(TAX_NUMBER, Duration.ofMillis(50), Runnable::run);
+
+        assertThat(result.get(2, TimeUnit.SECONDS)).isEqualTo(RetryLatch.RetryStatus.SUCCESS);
+    }
+
+    @Test
+    void continuesOnTheGivenExecutor() throws Exception {
+        Thread[] continuation = new Thread[1];
+        CompletableFuture<RetryLatch.RetryStatus> result = latch.awaitResult(TAX_NUMBER, Duration.ofSeconds(5),
+                task -> new Thread(() -> {
+                    continuation[0] = Thread.currentThread();
+                    task.run();
+                }, "key-worker").start());
+
+        latch.onSignalMessage(TAX_NUMBER + "|SUCCESS");
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo(RetryLatch.RetryStatus.SUCCESS);
+        assertThat(continuation[0].getName()).isEqualTo("key-worker");
+    }
+}
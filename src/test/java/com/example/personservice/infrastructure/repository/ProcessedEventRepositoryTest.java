@@ -0,0 +1,127 @@
+package com.example.personservice.infrastructure.repository;
+
+import com.example.personservice.infrastructure.messaging.events.DomainEvent;
+import com.example.personservice.infrastructure.messaging.events.PersonEvent;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ProcessedEventRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:18.1");
+
+    private static DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private ProcessedEventRepository repository;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("TRUNCATE processed_event");
+        repository = new ProcessedEventRepository(jdbcTemplate);
+    }
+
+    @Test
+    void claimsEachEventOnce() {
+        PersonEvent first = new PersonEvent(PersonEvent.EventType.CREATE, null);
+        PersonEvent second = new PersonEvent(PersonEvent.EventType.UPDATE, null);
+
+        assertThat(repository.claim(List.of(first, second))).containsExactlyInAnyOrder(first.getEventId(), second.getEventId());
+        assertThat(repository.claim(List.of(first, second))).isEmpty();
+        assertThat(repository.claim(first)).isFalse();
+    }
+
+    @Test
+    void returnsOnlyTheNewEventsOfAMixedBatch() {
+        PersonEvent seen = new PersonEvent(PersonEvent.EventType.CREATE, null);
+        PersonEvent fresh = new PersonEvent(PersonEvent.EventType.UPDATE, null);
+        repository.claim(seen);
+
+        Set<UUID> claimed = repository.claim(List.of(seen, fresh));
+
+        assertThat(claimed).containsExactly(fresh.getEventId());
+    }
+
+    @Test
+    void rolledBackClaimsCanBeClaimedAgain() {
+        PersonEvent event = new PersonEvent(PersonEvent.EventType.CREATE, null);
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        transactions.executeWithoutResult(status -> {
+            assertThat(repository.claim(event)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        assertThat(repository.claim(event)).isTrue();
+    }
+
+    @Test
+    void storesOldEventsInTheDefaultPartitionUntilPurged() {
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        DomainEvent<PersonEvent.EventType> event = eventAt(old);
+
+        assertThat(repository.claim(event)).isTrue();
+        assertThat(count("processed_event_default")).isEqualTo(1);
+
+        assertThat(repository.deleteFromDefaultPartitionBefore(old.plusDays(1))).isEqualTo(1);
+        assertThat(repository.claim(event)).isTrue();
+    }
+
+    @Test
+    void createsAndDropsDailyPartitions() {
+        LocalDate day = LocalDate.now().plusDays(20);
+        repository.createPartition(day);
+        repository.createPartition(day);
+
+        assertThat(repository.findPartitionNames()).contains(ProcessedEventRepository.partitionName(day));
+        assertThat(repository.claim(eventAt(day.atTime(12, 0)))).isTrue();
+        assertThat(count(ProcessedEventRepository.partitionName(day))).isEqualTo(1);
+
+        repository.dropPartition(day);
+
+        assertThat(repository.findPartitionNames()).doesNotContain(ProcessedEventRepository.partitionName(day));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+    }
+
+    private static DomainEvent<PersonEvent.EventType> eventAt(LocalDateTime occurredOn) {
+        return new DomainEvent<>(PersonEvent.EventType.CREATE) {
+            @Override
+            public LocalDateTime getOccurredOn() {
+                return occurredOn;
+            }
+        };
+    }
+}